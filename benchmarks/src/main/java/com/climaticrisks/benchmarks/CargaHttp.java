@@ -0,0 +1,135 @@
+package com.climaticrisks.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Gerador de carga para comparar o modo worker pool com o modo virtual threads da API em execução.
+// Uso: java -cp target/benchmarks.jar com.climaticrisks.benchmarks.CargaHttp <baseUrl> <token> [clientes] [segundos]
+public class CargaHttp {
+
+    private static final List<String> ROTAS = List.of("/alagamentos", "/notificacoes/minhas");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: CargaHttp <baseUrl> <token> [clientes=2000] [segundos=60]");
+            System.exit(1);
+        }
+
+        String baseUrl = args[0].endsWith("/") ? args[0].substring(0, args[0].length() - 1) : args[0];
+        String token = args[1];
+        int clientes = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        Duration duracao = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 60);
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        for (String rota : ROTAS) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + rota))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+
+            aquecer(client, request);
+            Resultado resultado = executar(client, request, clientes, duracao);
+            resultado.imprimir(rota, clientes);
+        }
+    }
+
+    private static void aquecer(HttpClient client, HttpRequest request) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private static Resultado executar(HttpClient client, HttpRequest request, int clientes, Duration duracao)
+            throws InterruptedException {
+        long fim = System.nanoTime() + duracao.toNanos();
+        LongAdder erros = new LongAdder();
+        LongAdder rejeitadas = new LongAdder();
+        List<long[]> latenciasPorCliente = new ArrayList<>(clientes);
+        int[] contagemPorCliente = new int[clientes];
+
+        for (int i = 0; i < clientes; i++) {
+            latenciasPorCliente.add(new long[1024]);
+        }
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                int cliente = i;
+                executor.submit(() -> {
+                    while (System.nanoTime() < fim) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 503) {
+                                rejeitadas.increment();
+                                continue;
+                            }
+                            if (response.statusCode() >= 400) {
+                                erros.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            erros.increment();
+                            continue;
+                        }
+
+                        long[] latencias = latenciasPorCliente.get(cliente);
+                        int n = contagemPorCliente[cliente];
+                        if (n == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, n * 2);
+                            latenciasPorCliente.set(cliente, latencias);
+                        }
+                        latencias[n] = System.nanoTime() - t0;
+                        contagemPorCliente[cliente] = n + 1;
+                    }
+                });
+            }
+        }
+        long decorrido = System.nanoTime() - inicio;
+
+        int total = Arrays.stream(contagemPorCliente).sum();
+        long[] todas = new long[total];
+        int pos = 0;
+        for (int i = 0; i < clientes; i++) {
+            System.arraycopy(latenciasPorCliente.get(i), 0, todas, pos, contagemPorCliente[i]);
+            pos += contagemPorCliente[i];
+        }
+        Arrays.sort(todas);
+
+        return new Resultado(todas, decorrido, erros.sum(), rejeitadas.sum());
+    }
+
+    private record Resultado(long[] latencias, long decorridoNanos, long erros, long rejeitadas) {
+
+        long percentil(double p) {
+            if (latencias.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.ceil(p * latencias.length) - 1;
+            return latencias[Math.max(0, Math.min(indice, latencias.length - 1))];
+        }
+
+        void imprimir(String rota, int clientes) {
+            double segundos = decorridoNanos / 1_000_000_000.0;
+            System.out.printf("%s (%d clientes, %.1fs)%n", rota, clientes, segundos);
+            System.out.printf("  sucesso: %d  rejeitadas(503): %d  erros: %d%n", latencias.length, rejeitadas, erros);
+            System.out.printf("  throughput: %.1f req/s%n", latencias.length / segundos);
+            System.out.printf("  p50: %.1f ms  p99: %.1f ms  max: %.1f ms%n",
+                    percentil(0.50) / 1_000_000.0, percentil(0.99) / 1_000_000.0, percentil(1.0) / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.enums.TipoRisco;
+import com.climaticrisks.events.NotificacoesCriadas;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.NotificationOptions;
+import jakarta.enterprise.util.TypeLiteral;
+import oracle.jdbc.pool.OracleDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.lang.annotation.Annotation;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+// Uma notificação para N destinatários por notificarUsuarios (INSERTs em lote numa transação), contra o Oracle
+// de DB_URL/DB_USER/DB_PASSWORD. Use um banco descartável: o setup cria N usuários e o teardown os apaga.
+// SingleShotTime mede o fan-out inteiro; notificações/s = destinatarios / tempo.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NotificacaoFanOutBenchmark {
+
+    private static final String TITULO = "Benchmark fan-out";
+    private static final String EMAIL = "fanout-benchmark-%d@exemplo.com";
+    private static final int TAMANHO_LOTE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    int destinatarios;
+
+    private OracleDataSource dataSource;
+    private NotificacaoRepository repository;
+    private RoaringBitmap usuarioIds;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = new OracleDataSource();
+        dataSource.setURL(System.getenv("DB_URL"));
+        dataSource.setUser(System.getenv("DB_USER"));
+        dataSource.setPassword(System.getenv("DB_PASSWORD"));
+
+        repository = new NotificacaoRepository();
+        repository.dataSource = dataSource;
+        repository.notificacoesCriadas = new SemObservadores<>();
+
+        apagarUsuarios();
+        usuarioIds = criarUsuarios();
+    }
+
+    @TearDown(Level.Iteration)
+    public void apagarNotificacoes() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM gs_notificacao WHERE titulo = ?")) {
+            stmt.setString(1, TITULO);
+            stmt.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        apagarNotificacoes();
+        apagarUsuarios();
+    }
+
+    @Benchmark
+    public int fanOut() {
+        return repository.notificarUsuarios(usuarioIds, TITULO, "Alerta de alagamento no bairro", TipoRisco.ALTO);
+    }
+
+    private RoaringBitmap criarUsuarios() throws SQLException {
+        String sql = """
+            INSERT INTO gs_usuario (nome, email, telefone, endereco_id, senha, is_defesa_civil)
+            VALUES (?, ?, ?, NULL, ?, 0)
+            """;
+
+        RoaringBitmap ids = new RoaringBitmap();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
+
+            for (int inicio = 0; inicio < destinatarios; inicio += TAMANHO_LOTE) {
+                int fim = Math.min(inicio + TAMANHO_LOTE, destinatarios);
+                for (int i = inicio; i < fim; i++) {
+                    stmt.setString(1, "Morador " + i);
+                    stmt.setString(2, EMAIL.formatted(i));
+                    stmt.setString(3, "11999999999");
+                    stmt.setString(4, "benchmark");
+                    stmt.addBatch();
+                }
+
+                List<Integer> criados = GeneratedKeys.executeBatch(stmt, fim - inicio);
+                criados.forEach(ids::add);
+            }
+        }
+        return ids;
+    }
+
+    private void apagarUsuarios() throws SQLException {
+        String notificacoesSql = """
+            DELETE FROM gs_notificacao
+            WHERE usuario_id IN (SELECT id FROM gs_usuario WHERE email LIKE 'fanout-benchmark-%@exemplo.com')
+            """;
+
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(notificacoesSql)) {
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "DELETE FROM gs_usuario WHERE email LIKE 'fanout-benchmark-%@exemplo.com'")) {
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    // Sem CDI: o evento pós-commit não tem ouvintes, então o número mede só o banco.
+    private static final class SemObservadores<T> implements Event<T> {
+
+        @Override
+        public void fire(T event) {
+        }
+
+        @Override
+        public <U extends T> CompletionStage<U> fireAsync(U event) {
+            return CompletableFuture.completedFuture(event);
+        }
+
+        @Override
+        public <U extends T> CompletionStage<U> fireAsync(U event, NotificationOptions options) {
+            return CompletableFuture.completedFuture(event);
+        }
+
+        @Override
+        public Event<T> select(Annotation... qualifiers) {
+            return this;
+        }
+
+        @Override
+        public <U extends T> Event<U> select(Class<U> subtype, Annotation... qualifiers) {
+            return new SemObservadores<>();
+        }
+
+        @Override
+        public <U extends T> Event<U> select(TypeLiteral<U> subtype, Annotation... qualifiers) {
+            return new SemObservadores<>();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.climaticrisks.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthServiceBenchmark {
+
+    @Param({"600000"})
+    int iteracoes;
+
+    private SenhaService senhaService;
+    private Sha256LegadoSenhaHasher legado;
+    private String senha;
+    private String hashPbkdf2;
+    private String hashLegado;
+
+    @Setup
+    public void setup() {
+        senhaService = BenchmarkFixtures.senhaService(iteracoes, 1, 16);
+        legado = new Sha256LegadoSenhaHasher();
+        senha = "SenhaForte123";
+        hashPbkdf2 = senhaService.senhaHasher.hash(senha);
+        hashLegado = legado.hash(senha);
+    }
+
+    @TearDown
+    public void tearDown() {
+        senhaService.encerrar();
+    }
+
+    @Benchmark
+    public String hashSenha() {
+        return senhaService.senhaHasher.hash(senha);
+    }
+
+    @Benchmark
+    public SenhaService.ResultadoVerificacao verificarSenha() {
+        return senhaService.verificar(senha, hashPbkdf2);
+    }
+
+    @Benchmark
+    public boolean verificarSenhaLegada() {
+        return legado.verificar(senha, hashLegado);
+    }
+}
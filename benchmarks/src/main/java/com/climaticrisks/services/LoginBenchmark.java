@@ -0,0 +1,62 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.models.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 500 logins simultâneos contra o pool limitado; SampleTime reporta p0.99 da latência de ponta a ponta
+// (fila + PBKDF2 + JWT). O repositório é um stub, então o número isola o custo de CPU do login.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(500)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({"100000", "310000", "600000"})
+    int iteracoes;
+
+    private AuthService authService;
+    private SenhaService senhaService;
+
+    @Setup
+    public void setup() throws Exception {
+        senhaService = BenchmarkFixtures.senhaService(iteracoes, Runtime.getRuntime().availableProcessors(), 1024);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(42);
+        usuario.setNome("Maria Silva");
+        usuario.setEmail("maria@exemplo.com");
+        usuario.setSenha(senhaService.senhaHasher.hash("SenhaForte123"));
+
+        authService = new AuthService();
+        authService.senhaService = senhaService;
+        authService.jwtService = BenchmarkFixtures.jwtService();
+        authService.usuarioRepository = BenchmarkFixtures.usuarioRepository(usuario);
+    }
+
+    @TearDown
+    public void tearDown() {
+        senhaService.encerrar();
+    }
+
+    @Benchmark
+    public AuthService.AuthResult login() {
+        return authService.authenticate("maria@exemplo.com", "SenhaForte123");
+    }
+}
@@ -0,0 +1,63 @@
+package com.climaticrisks.validators;
+
+import com.climaticrisks.models.Usuario;
+import com.climaticrisks.repositories.UsuarioRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsuarioValidatorBenchmark {
+
+    private UsuarioValidator validator;
+    private Usuario usuarioValido;
+    private Usuario usuarioInvalido;
+
+    @Setup
+    public void setup() {
+        validator = new UsuarioValidator();
+        validator.usuarioRepository = new UsuarioRepository() {
+            @Override
+            public Optional<Usuario> findByEmail(String email) {
+                return Optional.empty();
+            }
+        };
+
+        usuarioValido = new Usuario();
+        usuarioValido.setNome("Maria da Silva");
+        usuarioValido.setEmail("maria.silva@exemplo.com.br");
+        usuarioValido.setTelefone("(11) 99999-9999");
+        usuarioValido.setSenha("SenhaForte123");
+
+        usuarioInvalido = new Usuario();
+        usuarioInvalido.setNome("Maria 2");
+        usuarioInvalido.setEmail("maria.silva@exemplo");
+        usuarioInvalido.setTelefone("11-9999");
+        usuarioInvalido.setSenha("semnumero");
+    }
+
+    @Benchmark
+    public UsuarioValidator.ValidationResult validateValido() {
+        return validator.validate(usuarioValido);
+    }
+
+    @Benchmark
+    public UsuarioValidator.ValidationResult validateInvalido() {
+        return validator.validate(usuarioInvalido);
+    }
+}
@@ -8,19 +8,23 @@ import com.climaticrisks.requests.AlagamentoRequest;
 import com.climaticrisks.requests.AlagamentoUpdateRequest;
 import com.climaticrisks.responses.AlagamentoResponse;
 import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.services.CurrentUser;
+import com.climaticrisks.services.IngestaoLoteService;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
 
-import org.eclipse.microprofile.jwt.JsonWebToken;
-
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+@RunOnVirtualThread
 @Path("/alagamentos")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -33,14 +37,16 @@ public class AlagamentoController {
     EnderecoRepository enderecoRepository;
 
     @Inject
-    JsonWebToken jwt;
+    CurrentUser currentUser;
+
+    @Inject
+    IngestaoLoteService ingestaoLoteService;
 
     @POST
     public Response create(AlagamentoRequest request) {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
+        Integer usuarioId = currentUser.getId();
 
+        try {
             if (request.getEndereco() == null) {
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity(new ErrorResponse("Endereço é obrigatório", List.of("endereco não pode ser nulo")))
@@ -59,7 +65,7 @@ public class AlagamentoController {
                         .build();
             }
 
-            Endereco savedEndereco = enderecoRepository.save(request.getEndereco());
+            Endereco savedEndereco = enderecoRepository.findOrCreate(request.getEndereco());
 
             Alagamento alagamento = new Alagamento();
             alagamento.setUsuarioId(usuarioId);
@@ -76,10 +82,6 @@ public class AlagamentoController {
             AlagamentoResponse response = new AlagamentoResponse(savedAlagamento, savedEndereco);
 
             return Response.status(Response.Status.CREATED).entity(response).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity(new ErrorResponse("Erro ao criar alagamento", List.of(e.getMessage())))
@@ -87,28 +89,26 @@ public class AlagamentoController {
         }
     }
 
+    @POST
+    @Path("/lote")
+    @Consumes(RestMediaType.APPLICATION_NDJSON)
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    public Response createLote(InputStream entrada) {
+        Integer usuarioId = currentUser.getId();
+
+        return Response.ok(ingestaoLoteService.importarAlagamentos(entrada, usuarioId)).build();
+    }
+
     @GET
     @Path("/meus")
     @PermitAll
     public Response findMyAlagamentos() {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
-            List<Alagamento> alagamentos = alagamentoRepository.findByUsuarioId(usuarioId);
+        Integer usuarioId = currentUser.getId();
 
-            List<AlagamentoResponse> responses = alagamentos.stream()
-                    .map(alagamento -> {
-                        Optional<Endereco> endereco = enderecoRepository.findById(alagamento.getEnderecoId());
-                        return new AlagamentoResponse(alagamento, endereco.orElse(null));
-                    })
-                    .toList();
+        try {
+            List<AlagamentoResponse> responses = alagamentoRepository.findResponsesByUsuarioId(usuarioId);
 
             return Response.ok(responses).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -127,10 +127,9 @@ public class AlagamentoController {
                         .build();
             }
 
-            Optional<Alagamento> alagamento = alagamentoRepository.findById(id);
+            Optional<AlagamentoResponse> alagamento = alagamentoRepository.findResponseById(id);
             if (alagamento.isPresent()) {
-                String userIdStr = jwt.getClaim("userId");
-                Integer usuarioId = Integer.parseInt(userIdStr);
+                Integer usuarioId = currentUser.getId();
 
                 if (!alagamento.get().getUsuarioId().equals(usuarioId)) {
                     return Response.status(Response.Status.FORBIDDEN)
@@ -138,10 +137,7 @@ public class AlagamentoController {
                             .build();
                 }
 
-                Optional<Endereco> endereco = enderecoRepository.findById(alagamento.get().getEnderecoId());
-                AlagamentoResponse response = new AlagamentoResponse(alagamento.get(), endereco.orElse(null));
-
-                return Response.ok(response).build();
+                return Response.ok(alagamento.get()).build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity(new ErrorResponse("Alagamento não encontrado", List.of("Alagamento com ID " + id + " não existe")))
@@ -158,6 +154,8 @@ public class AlagamentoController {
     @Path("/{id}")
     @PermitAll
     public Response update(@PathParam("id") Integer id, AlagamentoUpdateRequest request) {
+        Integer usuarioId = currentUser.getId();
+
         try {
             if (id == null || id <= 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -165,9 +163,6 @@ public class AlagamentoController {
                         .build();
             }
 
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
             Optional<Alagamento> existingAlagamento = alagamentoRepository.findById(id);
             if (existingAlagamento.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -191,10 +186,6 @@ public class AlagamentoController {
             AlagamentoResponse response = new AlagamentoResponse(updatedAlagamento, endereco.orElse(null));
 
             return Response.ok(response).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("não encontrado")) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -215,6 +206,8 @@ public class AlagamentoController {
     @Path("/{id}")
     @PermitAll
     public Response delete(@PathParam("id") Integer id) {
+        Integer usuarioId = currentUser.getId();
+
         try {
             if (id == null || id <= 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -222,9 +215,6 @@ public class AlagamentoController {
                         .build();
             }
 
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
             Optional<Alagamento> existingAlagamento = alagamentoRepository.findById(id);
             if (existingAlagamento.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -240,10 +230,6 @@ public class AlagamentoController {
 
             alagamentoRepository.delete(id);
             return Response.noContent().build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("não encontrado")) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -264,14 +250,7 @@ public class AlagamentoController {
     @PermitAll
     public Response findAll() {
         try {
-            List<Alagamento> alagamentos = alagamentoRepository.findAll();
-
-            List<AlagamentoResponse> responses = alagamentos.stream()
-                    .map(alagamento -> {
-                        Optional<Endereco> endereco = enderecoRepository.findById(alagamento.getEnderecoId());
-                        return new AlagamentoResponse(alagamento, endereco.orElse(null));
-                    })
-                    .toList();
+            List<AlagamentoResponse> responses = alagamentoRepository.findAllResponses();
 
             return Response.ok(responses).build();
         } catch (Exception e) {
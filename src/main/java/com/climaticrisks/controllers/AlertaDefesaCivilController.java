@@ -3,16 +3,38 @@ package com.climaticrisks.controllers;
 import com.climaticrisks.models.AlertaDefesaCivil;
 import com.climaticrisks.enums.TipoRisco;
 import com.climaticrisks.repositories.AlertaDefesaCivilRepository;
+import com.climaticrisks.repositories.AlertasBairroIndex;
+import com.climaticrisks.repositories.BairroRepository;
+import com.climaticrisks.repositories.MoradoresBairroIndex;
+import com.climaticrisks.requests.PageRequest;
+import com.climaticrisks.responses.AlcanceAlertaResponse;
+import com.climaticrisks.responses.CacheStatsResponse;
 import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.responses.JsonArrayStream;
+import com.climaticrisks.responses.PageResponse;
 import com.climaticrisks.responses.SuccessResponse;
+import com.climaticrisks.services.AlertasAtivosCache;
+import com.climaticrisks.services.AlertasStream;
+import com.climaticrisks.services.CurrentUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Path("/alertas")
 @Produces(MediaType.APPLICATION_JSON)
@@ -23,6 +45,31 @@ public class AlertaDefesaCivilController {
     @Inject
     AlertaDefesaCivilRepository alertaRepository;
 
+    @Inject
+    AlertasAtivosCache alertasAtivosCache;
+
+    @Inject
+    BairroRepository bairroRepository;
+
+    @Inject
+    MoradoresBairroIndex moradoresBairroIndex;
+
+    @Inject
+    AlertasBairroIndex alertasBairroIndex;
+
+    @Inject
+    AlertasStream alertasStream;
+
+    @Inject
+    CurrentUser currentUser;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "climaticrisks.alertas.stream.heartbeat", defaultValue = "15s")
+    Duration streamHeartbeat;
+
+    @RunOnVirtualThread
     @POST
     public Response create(AlertaDefesaCivil alerta) {
         try {
@@ -55,6 +102,7 @@ public class AlertaDefesaCivilController {
         }
     }
 
+    @RunOnVirtualThread
     @GET
     @Path("/{id}")
     public Response findById(@PathParam("id") Integer id) {
@@ -80,11 +128,17 @@ public class AlertaDefesaCivilController {
         }
     }
 
+    @RunOnVirtualThread
     @GET
-    public Response findAll() {
+    public Response findAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
         try {
-            List<AlertaDefesaCivil> alertas = alertaRepository.findAll();
-            return Response.ok(alertas).build();
+            PageRequest page = PageRequest.of(after, limit);
+            List<AlertaDefesaCivil> alertas = alertaRepository.findPage(page);
+            return Response.ok(PageResponse.of(alertas, page)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Paginação inválida", List.of(e.getMessage())))
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -92,12 +146,79 @@ public class AlertaDefesaCivilController {
         }
     }
 
+    @RunOnVirtualThread
+    @GET
+    @Path("/export")
+    public Response export() {
+        try {
+            return Response.ok(JsonArrayStream.of(objectMapper, alertaRepository.streamAll())).build();
+        } catch (RuntimeException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro ao exportar alertas", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
     @GET
     @Path("/ativos")
-    public Response findAtivos() {
+    public Uni<Response> findAtivos() {
+        return alertasAtivosCache.getAtivosAsync()
+                .map(alertas -> Response.ok(alertas).build())
+                .onFailure().recoverWithItem(e -> Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                        .build());
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public Multi<OutboundSseEvent> stream(@QueryParam("bairro") List<String> bairros,
+                                          @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String ultimoEventoId,
+                                          @Context Sse sse) {
+        Multi<OutboundSseEvent> eventos = alertasStream.assinar(bairros, ultimoEventoId)
+                .map(evento -> sse.newEventBuilder()
+                        .id(evento.id())
+                        .name(evento.tipo())
+                        .data(evento.dados())
+                        .build());
+
+        // Comentário periódico para que proxies não derrubem a conexão ociosa entre alertas.
+        Multi<OutboundSseEvent> heartbeat = Multi.createFrom().ticks().every(streamHeartbeat)
+                .onOverflow().drop()
+                .map(tick -> sse.newEventBuilder().comment("ping").build());
+
+        return Multi.createBy().merging().streams(eventos, heartbeat);
+    }
+
+    @RunOnVirtualThread
+    @GET
+    @Path("/ativos/cache")
+    public Response cacheStats() {
+        return Response.ok(new CacheStatsResponse(
+                alertasAtivosCache.getHits(),
+                alertasAtivosCache.getMisses(),
+                alertasAtivosCache.getInvalidacoes()
+        )).build();
+    }
+
+    @RunOnVirtualThread
+    @GET
+    @Path("/alcance")
+    public Response alcance(@QueryParam("bairro") List<String> bairros) {
         try {
-            List<AlertaDefesaCivil> alertas = alertaRepository.findAtivos();
-            return Response.ok(alertas).build();
+            if (bairros == null || bairros.isEmpty() || bairros.stream().allMatch(b -> b == null || b.trim().isEmpty())) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponse("Bairro é obrigatório", List.of("informe ao menos um parâmetro bairro")))
+                        .build();
+            }
+
+            // Bairro fora do dicionário não tem moradores nem inscritos.
+            List<Integer> bairroIds = bairros.stream()
+                    .map(bairroRepository::findIdByNome)
+                    .flatMap(Optional::stream)
+                    .toList();
+
+            return Response.ok(new AlcanceAlertaResponse(bairros, moradoresBairroIndex.alcance(bairroIds))).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -105,6 +226,39 @@ public class AlertaDefesaCivilController {
         }
     }
 
+    @RunOnVirtualThread
+    @GET
+    @Path("/bairro/{bairro}")
+    public Response findAtivosByBairro(@PathParam("bairro") String bairro) {
+        try {
+            // Bairro fora do dicionário só recebe os alertas que valem para a cidade toda.
+            List<Integer> bairroIds = bairroRepository.findIdByNome(bairro).stream().toList();
+
+            return Response.ok(filtrarAtivos(alertasBairroIndex.alertaIds(bairroIds))).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
+    @RunOnVirtualThread
+    @GET
+    @Path("/meus")
+    public Response findMeus() {
+        Integer usuarioId = currentUser.getId();
+
+        try {
+            Set<Integer> bairroIds = moradoresBairroIndex.bairrosDoUsuario(usuarioId);
+            return Response.ok(filtrarAtivos(alertasBairroIndex.alertaIds(bairroIds))).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
+    @RunOnVirtualThread
     @GET
     @Path("/nivel/{nivel}")
     public Response findByNivel(@PathParam("nivel") String nivel) {
@@ -132,6 +286,7 @@ public class AlertaDefesaCivilController {
         }
     }
 
+    @RunOnVirtualThread
     @PUT
     @Path("/{id}")
     public Response update(@PathParam("id") Integer id, AlertaDefesaCivil alerta) {
@@ -174,6 +329,7 @@ public class AlertaDefesaCivilController {
         }
     }
 
+    @RunOnVirtualThread
     @DELETE
     @Path("/{id}")
     public Response delete(@PathParam("id") Integer id) {
@@ -202,6 +358,7 @@ public class AlertaDefesaCivilController {
         }
     }
 
+    @RunOnVirtualThread
     @PUT
     @Path("/{id}/desativar")
     public Response desativar(@PathParam("id") Integer id) {
@@ -229,4 +386,14 @@ public class AlertaDefesaCivilController {
                     .build();
         }
     }
+
+    // A lista de ativos já está em memória e na ordem de /ativos; o índice só decide quais entram.
+    private List<AlertaDefesaCivil> filtrarAtivos(Set<Integer> alertaIds) {
+        if (alertaIds.isEmpty()) {
+            return List.of();
+        }
+        return alertasAtivosCache.getAtivos().stream()
+                .filter(alerta -> alertaIds.contains(alerta.getId()))
+                .toList();
+    }
 }
@@ -7,12 +7,15 @@ import com.climaticrisks.responses.LogoutResponse;
 import com.climaticrisks.services.AuthService;
 import com.climaticrisks.services.AuthService.AuthResult;
 import com.climaticrisks.validators.UsuarioValidator;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+@RunOnVirtualThread
 @Path("/auth")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -27,42 +30,49 @@ public class AuthController {
     @POST
     @Path("/login")
     public Response login(LoginRequest request) {
-        try {
-            if (request.getEmail() == null || request.getEmail().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(new ErrorResponse("Email é obrigatório", List.of("Email não pode ser vazio")))
-                        .build();
-            }
-
-            if (request.getSenha() == null || request.getSenha().trim().isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(new ErrorResponse("Senha é obrigatória", List.of("Senha não pode ser vazia")))
-                        .build();
-            }
+        if (request.getEmail() == null || request.getEmail().trim().isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Email é obrigatório", List.of("Email não pode ser vazio")))
+                    .build();
+        }
 
-            AuthResult result = authService.authenticate(request.getEmail(), request.getSenha());
+        if (request.getSenha() == null || request.getSenha().trim().isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Senha é obrigatória", List.of("Senha não pode ser vazia")))
+                    .build();
+        }
 
-            if (result.isSuccess()) {
-                LoginResponse response = new LoginResponse(
-                        result.getToken(),
-                        result.getRefreshToken(),
-                        "Bearer",
-                        86400,
-                        result.getMessage()
-                );
-                return Response.ok(response).build();
-            } else {
-                return Response.status(Response.Status.UNAUTHORIZED)
-                        .entity(new ErrorResponse("Falha na autenticação", List.of(result.getMessage())))
-                        .build();
-            }
+        try {
+            return toResponse(authService.authenticate(request.getEmail(), request.getSenha()));
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", 1)
+                    .entity(new ErrorResponse("Servidor ocupado", List.of("Muitos logins simultâneos, tente novamente")))
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                    .entity(new ErrorResponse("Erro interno", List.of(String.valueOf(e.getMessage()))))
                     .build();
         }
     }
 
+    private Response toResponse(AuthResult result) {
+        if (result.isSuccess()) {
+            LoginResponse response = new LoginResponse(
+                    result.getToken(),
+                    result.getRefreshToken(),
+                    "Bearer",
+                    86400,
+                    result.getMessage()
+            );
+            return Response.ok(response).build();
+        }
+
+        return Response.status(Response.Status.UNAUTHORIZED)
+                .entity(new ErrorResponse("Falha na autenticação", List.of(result.getMessage())))
+                .build();
+    }
+
     @POST
     @Path("/logout")
     public Response logout() {
@@ -8,17 +8,22 @@ import com.climaticrisks.requests.DeslizamentoRequest;
 import com.climaticrisks.requests.DeslizamentoUpdateRequest;
 import com.climaticrisks.responses.DeslizamentoResponse;
 import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.services.CurrentUser;
+import com.climaticrisks.services.IngestaoLoteService;
 import io.quarkus.security.Authenticated;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+@RunOnVirtualThread
 @Path("/deslizamentos")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -31,15 +36,17 @@ public class DeslizamentoController {
     EnderecoRepository enderecoRepository;
 
     @Inject
-    JsonWebToken jwt;
+    CurrentUser currentUser;
+
+    @Inject
+    IngestaoLoteService ingestaoLoteService;
 
     @POST
     @PermitAll
     public Response create(DeslizamentoRequest request) {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
+        Integer usuarioId = currentUser.getId();
 
+        try {
             if (request.getEndereco() == null) {
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity(new ErrorResponse("Endereço é obrigatório", List.of("endereco não pode ser nulo")))
@@ -58,7 +65,7 @@ public class DeslizamentoController {
                         .build();
             }
 
-            Endereco savedEndereco = enderecoRepository.save(request.getEndereco());
+            Endereco savedEndereco = enderecoRepository.findOrCreate(request.getEndereco());
 
             Deslizamento deslizamento = new Deslizamento();
             deslizamento.setUsuarioId(usuarioId);
@@ -75,10 +82,6 @@ public class DeslizamentoController {
             DeslizamentoResponse response = new DeslizamentoResponse(savedDeslizamento, savedEndereco);
 
             return Response.status(Response.Status.CREATED).entity(response).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity(new ErrorResponse("Erro ao criar deslizamento", List.of(e.getMessage())))
@@ -86,28 +89,26 @@ public class DeslizamentoController {
         }
     }
 
+    @POST
+    @Path("/lote")
+    @Consumes(RestMediaType.APPLICATION_NDJSON)
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    public Response createLote(InputStream entrada) {
+        Integer usuarioId = currentUser.getId();
+
+        return Response.ok(ingestaoLoteService.importarDeslizamentos(entrada, usuarioId)).build();
+    }
+
     @GET
     @Path("/meus")
     @PermitAll
     public Response findMyDeslizamentos() {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
-            List<Deslizamento> deslizamentos = deslizamentoRepository.findByUsuarioId(usuarioId);
+        Integer usuarioId = currentUser.getId();
 
-            List<DeslizamentoResponse> responses = deslizamentos.stream()
-                    .map(deslizamento -> {
-                        Optional<Endereco> endereco = enderecoRepository.findById(deslizamento.getEnderecoId());
-                        return new DeslizamentoResponse(deslizamento, endereco.orElse(null));
-                    })
-                    .toList();
+        try {
+            List<DeslizamentoResponse> responses = deslizamentoRepository.findResponsesByUsuarioId(usuarioId);
 
             return Response.ok(responses).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -126,11 +127,10 @@ public class DeslizamentoController {
                         .build();
             }
 
-            Optional<Deslizamento> deslizamento = deslizamentoRepository.findById(id);
+            Optional<DeslizamentoResponse> deslizamento = deslizamentoRepository.findResponseById(id);
             if (deslizamento.isPresent()) {
-                String userIdStr = jwt.getClaim("userId");
-                Integer usuarioId = Integer.parseInt(userIdStr);
-                boolean isDefesaCivil = jwt.getGroups().contains("DEFESA_CIVIL");
+                Integer usuarioId = currentUser.getId();
+                boolean isDefesaCivil = currentUser.isDefesaCivil();
 
                 if (!isDefesaCivil && !deslizamento.get().getUsuarioId().equals(usuarioId)) {
                     return Response.status(Response.Status.FORBIDDEN)
@@ -138,10 +138,7 @@ public class DeslizamentoController {
                             .build();
                 }
 
-                Optional<Endereco> endereco = enderecoRepository.findById(deslizamento.get().getEnderecoId());
-                DeslizamentoResponse response = new DeslizamentoResponse(deslizamento.get(), endereco.orElse(null));
-
-                return Response.ok(response).build();
+                return Response.ok(deslizamento.get()).build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity(new ErrorResponse("Deslizamento não encontrado", List.of("Deslizamento com ID " + id + " não existe")))
@@ -158,6 +155,8 @@ public class DeslizamentoController {
     @Path("/{id}")
     @PermitAll
     public Response update(@PathParam("id") Integer id, DeslizamentoUpdateRequest request) {
+        Integer usuarioId = currentUser.getId();
+
         try {
             if (id == null || id <= 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -165,9 +164,6 @@ public class DeslizamentoController {
                         .build();
             }
 
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
             Optional<Deslizamento> existingDeslizamento = deslizamentoRepository.findById(id);
             if (existingDeslizamento.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -191,10 +187,6 @@ public class DeslizamentoController {
             DeslizamentoResponse response = new DeslizamentoResponse(updatedDeslizamento, endereco.orElse(null));
 
             return Response.ok(response).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("não encontrado")) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -215,6 +207,8 @@ public class DeslizamentoController {
     @Path("/{id}")
     @PermitAll
     public Response delete(@PathParam("id") Integer id) {
+        Integer usuarioId = currentUser.getId();
+
         try {
             if (id == null || id <= 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -222,9 +216,6 @@ public class DeslizamentoController {
                         .build();
             }
 
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
             Optional<Deslizamento> existingDeslizamento = deslizamentoRepository.findById(id);
             if (existingDeslizamento.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -240,10 +231,6 @@ public class DeslizamentoController {
 
             deslizamentoRepository.delete(id);
             return Response.noContent().build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("não encontrado")) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -264,14 +251,7 @@ public class DeslizamentoController {
     @PermitAll
     public Response findAll() {
         try {
-            List<Deslizamento> deslizamentos = deslizamentoRepository.findAll();
-
-            List<DeslizamentoResponse> responses = deslizamentos.stream()
-                    .map(deslizamento -> {
-                        Optional<Endereco> endereco = enderecoRepository.findById(deslizamento.getEnderecoId());
-                        return new DeslizamentoResponse(deslizamento, endereco.orElse(null));
-                    })
-                    .toList();
+            List<DeslizamentoResponse> responses = deslizamentoRepository.findAllResponses();
 
             return Response.ok(responses).build();
         } catch (Exception e) {
@@ -2,6 +2,12 @@ package com.climaticrisks.controllers;
 
 import com.climaticrisks.models.Endereco;
 import com.climaticrisks.repositories.EnderecoRepository;
+import com.climaticrisks.requests.PageRequest;
+import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.responses.JsonArrayStream;
+import com.climaticrisks.responses.PageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -10,6 +16,7 @@ import jakarta.ws.rs.core.Response;
 import java.util.List;
 import java.util.Optional;
 
+@RunOnVirtualThread
 @Path("/enderecos")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -19,6 +26,9 @@ public class EnderecoController {
     @Inject
     EnderecoRepository enderecoRepository;
 
+    @Inject
+    ObjectMapper objectMapper;
+
     @POST
     public Response create(Endereco endereco) {
         try {
@@ -48,16 +58,32 @@ public class EnderecoController {
     }
 
     @GET
-    public Response findAll() {
+    public Response findAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
         try {
-            List<Endereco> enderecos = enderecoRepository.findAll();
-            return Response.ok(enderecos).build();
+            PageRequest page = PageRequest.of(after, limit);
+            List<Endereco> enderecos = enderecoRepository.findPage(page);
+            return Response.ok(PageResponse.of(enderecos, page)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Paginação inválida: " + e.getMessage()).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Erro ao buscar endereços: " + e.getMessage()).build();
         }
     }
 
+    @GET
+    @Path("/export")
+    public Response export() {
+        try {
+            return Response.ok(JsonArrayStream.of(objectMapper, enderecoRepository.streamAll())).build();
+        } catch (RuntimeException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro ao exportar endereços", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
     @PUT
     @Path("/{id}")
     public Response update(@PathParam("id") Integer id, Endereco endereco) {
@@ -66,6 +92,11 @@ public class EnderecoController {
             Endereco updatedEndereco = enderecoRepository.update(endereco);
             return Response.ok(updatedEndereco).build();
         } catch (RuntimeException e) {
+            if (e.getMessage().contains("compartilhado")) {
+                return Response.status(Response.Status.CONFLICT)
+                        .entity(new ErrorResponse("Endereço compartilhado", List.of(e.getMessage())))
+                        .build();
+            }
             if (e.getMessage().contains("não encontrado")) {
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("Endereço não encontrado").build();
@@ -2,9 +2,15 @@ package com.climaticrisks.controllers;
 
 import com.climaticrisks.models.HistoricoRisco;
 import com.climaticrisks.enums.TipoRisco;
+import com.climaticrisks.repositories.HistoricoRiscoReactiveRepository;
 import com.climaticrisks.repositories.HistoricoRiscoRepository;
+import com.climaticrisks.requests.PageRequest;
 import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.responses.PageResponse;
+import com.climaticrisks.responses.RecalculoHistoricoResponse;
 import com.climaticrisks.responses.SuccessResponse;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -22,6 +28,10 @@ public class HistoricoRiscoController {
     @Inject
     HistoricoRiscoRepository historicoRepository;
 
+    @Inject
+    HistoricoRiscoReactiveRepository historicoReactiveRepository;
+
+    @RunOnVirtualThread
     @GET
     @Path("/{id}")
     public Response findById(@PathParam("id") Integer id) {
@@ -47,11 +57,17 @@ public class HistoricoRiscoController {
         }
     }
 
+    @RunOnVirtualThread
     @GET
-    public Response findAll() {
+    public Response findAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
         try {
-            List<HistoricoRisco> historicos = historicoRepository.findAll();
-            return Response.ok(historicos).build();
+            PageRequest page = PageRequest.of(after, limit);
+            List<HistoricoRisco> historicos = historicoRepository.findPage(page);
+            return Response.ok(PageResponse.of(historicos, page)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Paginação inválida", List.of(e.getMessage())))
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -61,29 +77,25 @@ public class HistoricoRiscoController {
 
     @GET
     @Path("/endereco/{enderecoId}")
-    public Response findByEnderecoId(@PathParam("enderecoId") Integer enderecoId) {
-        try {
-            if (enderecoId == null || enderecoId <= 0) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(new ErrorResponse("ID do endereço inválido", List.of("enderecoId deve ser um número positivo")))
-                        .build();
-            }
-
-            Optional<HistoricoRisco> historico = historicoRepository.findByEnderecoId(enderecoId);
-            if (historico.isPresent()) {
-                return Response.ok(historico.get()).build();
-            } else {
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity(new ErrorResponse("Histórico não encontrado", List.of("Nenhum histórico encontrado para o endereço " + enderecoId)))
-                        .build();
-            }
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
-                    .build();
+    public Uni<Response> findByEnderecoId(@PathParam("enderecoId") Integer enderecoId) {
+        if (enderecoId == null || enderecoId <= 0) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("ID do endereço inválido", List.of("enderecoId deve ser um número positivo")))
+                    .build());
         }
+
+        return historicoReactiveRepository.findByEnderecoId(enderecoId)
+                .map(historico -> historico
+                        .map(h -> Response.ok(h).build())
+                        .orElseGet(() -> Response.status(Response.Status.NOT_FOUND)
+                                .entity(new ErrorResponse("Histórico não encontrado", List.of("Nenhum histórico encontrado para o endereço " + enderecoId)))
+                                .build()))
+                .onFailure().recoverWithItem(e -> Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                        .build());
     }
 
+    @RunOnVirtualThread
     @GET
     @Path("/nivel/{nivel}")
     public Response findByNivel(@PathParam("nivel") String nivel) {
@@ -111,6 +123,7 @@ public class HistoricoRiscoController {
         }
     }
 
+    @RunOnVirtualThread
     @PUT
     @Path("/atualizar/{enderecoId}")
     public Response atualizarHistorico(@PathParam("enderecoId") Integer enderecoId) {
@@ -130,12 +143,16 @@ public class HistoricoRiscoController {
         }
     }
 
+    @RunOnVirtualThread
     @PUT
     @Path("/recalcular-todos")
     public Response recalcularTodos() {
         try {
-            historicoRepository.recalcularTodosHistoricos();
-            return Response.ok(new SuccessResponse("Todos os históricos foram recalculados com sucesso")).build();
+            int registrosAlterados = historicoRepository.recalcularTodosHistoricos();
+            return Response.ok(new RecalculoHistoricoResponse(
+                    "Todos os históricos foram recalculados com sucesso",
+                    registrosAlterados
+            )).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -143,6 +160,7 @@ public class HistoricoRiscoController {
         }
     }
 
+    @RunOnVirtualThread
     @DELETE
     @Path("/{id}")
     public Response delete(@PathParam("id") Integer id) {
@@ -1,15 +1,30 @@
 package com.climaticrisks.controllers;
 
 import com.climaticrisks.models.Notificacao;
+import com.climaticrisks.repositories.BairroRepository;
+import com.climaticrisks.repositories.InscricaoBairroRepository;
+import com.climaticrisks.repositories.NotificacaoReactiveRepository;
 import com.climaticrisks.repositories.NotificacaoRepository;
 import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.responses.NaoLidasResponse;
 import com.climaticrisks.responses.SuccessResponse;
+import com.climaticrisks.services.CurrentUser;
+import com.climaticrisks.services.NaoLidasContador;
+import com.climaticrisks.services.NotificacoesStream;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import org.eclipse.microprofile.jwt.JsonWebToken;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,21 +38,35 @@ public class NotificacaoController {
     NotificacaoRepository notificacaoRepository;
 
     @Inject
-    JsonWebToken jwt;
+    NotificacaoReactiveRepository notificacaoReactiveRepository;
 
+    @Inject
+    InscricaoBairroRepository inscricaoBairroRepository;
+
+    @Inject
+    BairroRepository bairroRepository;
+
+    @Inject
+    CurrentUser currentUser;
+
+    @Inject
+    NotificacoesStream notificacoesStream;
+
+    @Inject
+    NaoLidasContador naoLidasContador;
+
+    @ConfigProperty(name = "climaticrisks.notificacoes.stream.heartbeat", defaultValue = "15s")
+    Duration streamHeartbeat;
+
+    @RunOnVirtualThread
     @GET
     @Path("/minhas")
     public Response findMinhasNotificacoes() {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
+        Integer usuarioId = currentUser.getId();
 
+        try {
             List<Notificacao> notificacoes = notificacaoRepository.findByUsuarioId(usuarioId);
             return Response.ok(notificacoes).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -47,17 +76,24 @@ public class NotificacaoController {
 
     @GET
     @Path("/nao-lidas")
-    public Response findNaoLidas() {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
+    public Uni<Response> findNaoLidas() {
+        Integer usuarioId = currentUser.getId();
 
-            List<Notificacao> notificacoes = notificacaoRepository.findNaoLidasByUsuarioId(usuarioId);
-            return Response.ok(notificacoes).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
+        return notificacaoReactiveRepository.findNaoLidasByUsuarioId(usuarioId)
+                .map(notificacoes -> Response.ok(notificacoes).build())
+                .onFailure().recoverWithItem(e -> Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                        .build());
+    }
+
+    @RunOnVirtualThread
+    @GET
+    @Path("/nao-lidas/count")
+    public Response countNaoLidas() {
+        Integer usuarioId = currentUser.getId();
+
+        try {
+            return Response.ok(new NaoLidasResponse(naoLidasContador.get(usuarioId))).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -65,9 +101,33 @@ public class NotificacaoController {
         }
     }
 
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public Multi<OutboundSseEvent> stream(@HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String ultimoEventoId,
+                                          @Context Sse sse) {
+        Integer usuarioId = currentUser.getId();
+
+        Multi<OutboundSseEvent> notificacoes = notificacoesStream.assinar(usuarioId, ultimoEventoId)
+                .map(evento -> sse.newEventBuilder()
+                        .id(evento.id())
+                        .name(evento.tipo())
+                        .data(evento.dados())
+                        .build());
+
+        Multi<OutboundSseEvent> heartbeat = Multi.createFrom().ticks().every(streamHeartbeat)
+                .onOverflow().drop()
+                .map(tick -> sse.newEventBuilder().comment("ping").build());
+
+        return Multi.createBy().merging().streams(notificacoes, heartbeat);
+    }
+
+    @RunOnVirtualThread
     @PUT
     @Path("/{id}/marcar-lida")
     public Response marcarComoLida(@PathParam("id") Integer id) {
+        Integer usuarioId = currentUser.getId();
+
         try {
             if (id == null || id <= 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -75,9 +135,6 @@ public class NotificacaoController {
                         .build();
             }
 
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
             Optional<Notificacao> notificacao = notificacaoRepository.findById(id);
             if (notificacao.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -91,12 +148,8 @@ public class NotificacaoController {
                         .build();
             }
 
-            notificacaoRepository.marcarComoLida(id);
+            notificacaoRepository.marcarComoLida(id, usuarioId);
             return Response.ok(new SuccessResponse("Notificação marcada como lida")).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -104,19 +157,75 @@ public class NotificacaoController {
         }
     }
 
+    @RunOnVirtualThread
     @PUT
     @Path("/marcar-todas-lidas")
     public Response marcarTodasComoLidas() {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
+        Integer usuarioId = currentUser.getId();
 
+        try {
             notificacaoRepository.marcarTodasComoLidas(usuarioId);
             return Response.ok(new SuccessResponse("Todas as notificações foram marcadas como lidas")).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
+    @RunOnVirtualThread
+    @GET
+    @Path("/inscricoes")
+    public Response findInscricoes() {
+        Integer usuarioId = currentUser.getId();
+
+        try {
+            List<String> bairros = inscricaoBairroRepository.findBairrosByUsuarioId(usuarioId);
+            return Response.ok(bairros).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
+    @RunOnVirtualThread
+    @PUT
+    @Path("/inscricoes/{bairro}")
+    public Response inscrever(@PathParam("bairro") String bairro) {
+        Integer usuarioId = currentUser.getId();
+
+        try {
+            if (bairro == null || bairro.trim().isEmpty() || bairro.length() > 100) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponse("Bairro inválido", List.of("bairro deve ter entre 1 e 100 caracteres")))
+                        .build();
+            }
+
+            inscricaoBairroRepository.inscrever(usuarioId, bairroRepository.resolverId(bairro));
+            return Response.ok(new SuccessResponse("Inscrição no bairro registrada")).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
                     .build();
+        }
+    }
+
+    @RunOnVirtualThread
+    @DELETE
+    @Path("/inscricoes/{bairro}")
+    public Response cancelarInscricao(@PathParam("bairro") String bairro) {
+        Integer usuarioId = currentUser.getId();
+
+        try {
+            Optional<Integer> bairroId = bairroRepository.findIdByNome(bairro);
+            if (bairroId.isEmpty() || !inscricaoBairroRepository.cancelar(usuarioId, bairroId.get())) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(new ErrorResponse("Inscrição não encontrada", List.of("Você não está inscrito no bairro " + bairro)))
+                        .build();
+            }
+
+            return Response.ok(new SuccessResponse("Inscrição no bairro cancelada")).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
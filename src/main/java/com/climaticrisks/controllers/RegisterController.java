@@ -7,6 +7,7 @@ import com.climaticrisks.responses.RegisterSuccessResponse;
 import com.climaticrisks.services.AuthService;
 import com.climaticrisks.validators.UsuarioValidator;
 import com.climaticrisks.validators.UsuarioValidator.ValidationResult;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -14,6 +15,7 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 
+@RunOnVirtualThread
 @Path("/register")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -1,9 +1,16 @@
 package com.climaticrisks.controllers;
 
 import com.climaticrisks.models.RelatorioEvento;
+import com.climaticrisks.repositories.EventoMensalBairroRepository;
 import com.climaticrisks.repositories.RelatorioEventoRepository;
 import com.climaticrisks.requests.RelatorioRequest;
+import com.climaticrisks.requests.PageRequest;
 import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.responses.JsonArrayStream;
+import com.climaticrisks.responses.PageResponse;
+import com.climaticrisks.responses.ReconstrucaoConsolidadoResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -14,6 +21,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
+@RunOnVirtualThread
 @Path("/relatorios")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -23,6 +31,12 @@ public class RelatorioEventoController {
     @Inject
     RelatorioEventoRepository relatorioRepository;
 
+    @Inject
+    EventoMensalBairroRepository eventoMensalBairroRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     @POST
     public Response create(RelatorioEvento relatorio) {
         try {
@@ -73,10 +87,15 @@ public class RelatorioEventoController {
     }
 
     @GET
-    public Response findAll() {
+    public Response findAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
         try {
-            List<RelatorioEvento> relatorios = relatorioRepository.findAll();
-            return Response.ok(relatorios).build();
+            PageRequest page = PageRequest.of(after, limit);
+            List<RelatorioEvento> relatorios = relatorioRepository.findPage(page);
+            return Response.ok(PageResponse.of(relatorios, page)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Paginação inválida", List.of(e.getMessage())))
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -84,6 +103,18 @@ public class RelatorioEventoController {
         }
     }
 
+    @GET
+    @Path("/export")
+    public Response export() {
+        try {
+            return Response.ok(JsonArrayStream.of(objectMapper, relatorioRepository.streamAll())).build();
+        } catch (RuntimeException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro ao exportar relatórios", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
     @GET
     @Path("/periodo/{periodo}")
     public Response findByPeriodo(@PathParam("periodo") String periodo) {
@@ -189,6 +220,22 @@ public class RelatorioEventoController {
         }
     }
 
+    @POST
+    @Path("/consolidado-mensal/reconstruir")
+    public Response reconstruirConsolidadoMensal() {
+        try {
+            int linhasGeradas = eventoMensalBairroRepository.reconstruir();
+            return Response.ok(new ReconstrucaoConsolidadoResponse(
+                    "Consolidado mensal por bairro reconstruído com sucesso",
+                    linhasGeradas
+            )).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
     @GET
     @Path("/mes-atual")
     public Response gerarRelatorioMesAtual() {
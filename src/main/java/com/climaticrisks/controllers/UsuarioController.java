@@ -2,10 +2,17 @@ package com.climaticrisks.controllers;
 
 import com.climaticrisks.models.Usuario;
 import com.climaticrisks.repositories.UsuarioRepository;
+import com.climaticrisks.requests.PageRequest;
 import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.responses.JsonArrayStream;
+import com.climaticrisks.responses.PageResponse;
 import com.climaticrisks.services.AuthService;
+import com.climaticrisks.services.CurrentUser;
 import com.climaticrisks.validators.UsuarioValidator;
 import com.climaticrisks.validators.UsuarioValidator.ValidationResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.security.Authenticated;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -14,6 +21,7 @@ import jakarta.ws.rs.core.Response;
 import java.util.List;
 import java.util.Optional;
 
+@RunOnVirtualThread
 @Path("/usuarios")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -23,12 +31,18 @@ public class UsuarioController {
     @Inject
     UsuarioRepository usuarioRepository;
 
+    @Inject
+    ObjectMapper objectMapper;
+
     @Inject
     UsuarioValidator usuarioValidator;
 
     @Inject
     AuthService authService;
 
+    @Inject
+    CurrentUser currentUser;
+
     @POST
     public Response create(Usuario usuario) {
         try {
@@ -78,10 +92,15 @@ public class UsuarioController {
     }
 
     @GET
-    public Response findAll() {
+    public Response findAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
         try {
-            List<Usuario> usuarios = usuarioRepository.findAll();
-            return Response.ok(usuarios).build();
+            PageRequest page = PageRequest.of(after, limit);
+            List<Usuario> usuarios = usuarioRepository.findPage(page);
+            return Response.ok(PageResponse.of(usuarios, page)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Paginação inválida", List.of(e.getMessage())))
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -89,6 +108,25 @@ public class UsuarioController {
         }
     }
 
+    @GET
+    @Path("/export")
+    @Authenticated
+    public Response export() {
+        try {
+            if (!currentUser.isDefesaCivil()) {
+                return Response.status(Response.Status.FORBIDDEN)
+                        .entity(new ErrorResponse("Acesso negado", List.of("Apenas a Defesa Civil pode exportar usuários")))
+                        .build();
+            }
+
+            return Response.ok(JsonArrayStream.of(objectMapper, usuarioRepository.streamAll())).build();
+        } catch (RuntimeException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro ao exportar usuários", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
     @PUT
     @Path("/{id}")
     public Response update(@PathParam("id") Integer id, Usuario usuario) {
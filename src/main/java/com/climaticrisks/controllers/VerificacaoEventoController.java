@@ -1,17 +1,21 @@
 package com.climaticrisks.controllers;
 
 import com.climaticrisks.models.VerificacaoEvento;
+import com.climaticrisks.repositories.VerificacaoEventoReactiveRepository;
 import com.climaticrisks.repositories.VerificacaoEventoRepository;
-import com.climaticrisks.repositories.VerificacaoEventoRepository.EstatisticasVerificacao;
+import com.climaticrisks.requests.PageRequest;
 import com.climaticrisks.requests.VerificacaoRequest;
 import com.climaticrisks.requests.VerificacaoUpdateRequest;
 import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.responses.PageResponse;
+import com.climaticrisks.services.CurrentUser;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import org.eclipse.microprofile.jwt.JsonWebToken;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,14 +29,17 @@ public class VerificacaoEventoController {
     VerificacaoEventoRepository verificacaoRepository;
 
     @Inject
-    JsonWebToken jwt;
+    VerificacaoEventoReactiveRepository verificacaoReactiveRepository;
 
+    @Inject
+    CurrentUser currentUser;
+
+    @RunOnVirtualThread
     @POST
     public Response create(VerificacaoRequest request) {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
+        Integer usuarioId = currentUser.getId();
 
+        try {
             if (request.getAlagamentoId() == null && request.getDeslizamentoId() == null) {
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity(new ErrorResponse("Evento é obrigatório",
@@ -75,10 +82,6 @@ public class VerificacaoEventoController {
 
             VerificacaoEvento savedVerificacao = verificacaoRepository.save(verificacao);
             return Response.status(Response.Status.CREATED).entity(savedVerificacao).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity(new ErrorResponse("Erro ao criar verificação", List.of(e.getMessage())))
@@ -86,19 +89,33 @@ public class VerificacaoEventoController {
         }
     }
 
+    @RunOnVirtualThread
+    @GET
+    public Response findAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
+        try {
+            PageRequest page = PageRequest.of(after, limit);
+            List<VerificacaoEvento> verificacoes = verificacaoRepository.findPage(page);
+            return Response.ok(PageResponse.of(verificacoes, page)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Paginação inválida", List.of(e.getMessage())))
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                    .build();
+        }
+    }
+
+    @RunOnVirtualThread
     @GET
     @Path("/minhas")
     public Response findMinhasVerificacoes() {
-        try {
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
+        Integer usuarioId = currentUser.getId();
 
+        try {
             List<VerificacaoEvento> verificacoes = verificacaoRepository.findByUsuarioId(usuarioId);
             return Response.ok(verificacoes).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
@@ -106,6 +123,7 @@ public class VerificacaoEventoController {
         }
     }
 
+    @RunOnVirtualThread
     @GET
     @Path("/{id}")
     public Response findById(@PathParam("id") Integer id) {
@@ -131,6 +149,7 @@ public class VerificacaoEventoController {
         }
     }
 
+    @RunOnVirtualThread
     @GET
     @Path("/alagamento/{alagamentoId}")
     public Response findByAlagamentoId(@PathParam("alagamentoId") Integer alagamentoId) {
@@ -150,6 +169,7 @@ public class VerificacaoEventoController {
         }
     }
 
+    @RunOnVirtualThread
     @GET
     @Path("/deslizamento/{deslizamentoId}")
     public Response findByDeslizamentoId(@PathParam("deslizamentoId") Integer deslizamentoId) {
@@ -171,45 +191,42 @@ public class VerificacaoEventoController {
 
     @GET
     @Path("/estatisticas/alagamento/{alagamentoId}")
-    public Response getEstatisticasAlagamento(@PathParam("alagamentoId") Integer alagamentoId) {
-        try {
-            if (alagamentoId == null || alagamentoId <= 0) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(new ErrorResponse("ID do alagamento inválido", List.of("alagamentoId deve ser um número positivo")))
-                        .build();
-            }
-
-            EstatisticasVerificacao estatisticas = verificacaoRepository.getEstatisticasAlagamento(alagamentoId);
-            return Response.ok(estatisticas).build();
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
-                    .build();
+    public Uni<Response> getEstatisticasAlagamento(@PathParam("alagamentoId") Integer alagamentoId) {
+        if (alagamentoId == null || alagamentoId <= 0) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("ID do alagamento inválido", List.of("alagamentoId deve ser um número positivo")))
+                    .build());
         }
+
+        return verificacaoReactiveRepository.getEstatisticasAlagamento(alagamentoId)
+                .map(estatisticas -> Response.ok(estatisticas).build())
+                .onFailure().recoverWithItem(e -> Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                        .build());
     }
 
     @GET
     @Path("/estatisticas/deslizamento/{deslizamentoId}")
-    public Response getEstatisticasDeslizamento(@PathParam("deslizamentoId") Integer deslizamentoId) {
-        try {
-            if (deslizamentoId == null || deslizamentoId <= 0) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(new ErrorResponse("ID do deslizamento inválido", List.of("deslizamentoId deve ser um número positivo")))
-                        .build();
-            }
-
-            EstatisticasVerificacao estatisticas = verificacaoRepository.getEstatisticasDeslizamento(deslizamentoId);
-            return Response.ok(estatisticas).build();
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
-                    .build();
+    public Uni<Response> getEstatisticasDeslizamento(@PathParam("deslizamentoId") Integer deslizamentoId) {
+        if (deslizamentoId == null || deslizamentoId <= 0) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("ID do deslizamento inválido", List.of("deslizamentoId deve ser um número positivo")))
+                    .build());
         }
+
+        return verificacaoReactiveRepository.getEstatisticasDeslizamento(deslizamentoId)
+                .map(estatisticas -> Response.ok(estatisticas).build())
+                .onFailure().recoverWithItem(e -> Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(new ErrorResponse("Erro interno", List.of(e.getMessage())))
+                        .build());
     }
 
+    @RunOnVirtualThread
     @PUT
     @Path("/{id}")
     public Response update(@PathParam("id") Integer id, VerificacaoUpdateRequest request) {
+        Integer usuarioId = currentUser.getId();
+
         try {
             if (id == null || id <= 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -217,9 +234,6 @@ public class VerificacaoEventoController {
                         .build();
             }
 
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
             Optional<VerificacaoEvento> existingVerificacao = verificacaoRepository.findById(id);
             if (existingVerificacao.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -238,10 +252,6 @@ public class VerificacaoEventoController {
 
             VerificacaoEvento updatedVerificacao = verificacaoRepository.update(verificacao);
             return Response.ok(updatedVerificacao).build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("não encontrada")) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -258,9 +268,12 @@ public class VerificacaoEventoController {
         }
     }
 
+    @RunOnVirtualThread
     @DELETE
     @Path("/{id}")
     public Response delete(@PathParam("id") Integer id) {
+        Integer usuarioId = currentUser.getId();
+
         try {
             if (id == null || id <= 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -268,9 +281,6 @@ public class VerificacaoEventoController {
                         .build();
             }
 
-            String userIdStr = jwt.getClaim("userId");
-            Integer usuarioId = Integer.parseInt(userIdStr);
-
             Optional<VerificacaoEvento> existingVerificacao = verificacaoRepository.findById(id);
             if (existingVerificacao.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -286,10 +296,6 @@ public class VerificacaoEventoController {
 
             verificacaoRepository.delete(id);
             return Response.noContent().build();
-        } catch (NumberFormatException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
-                    .build();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("não encontrada")) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -0,0 +1,31 @@
+package com.climaticrisks.events;
+
+import com.climaticrisks.models.AlertaDefesaCivil;
+
+public class AlertaDefesaCivilAlterado {
+
+    public enum Tipo { CRIADO, ATUALIZADO, DESATIVADO, EXCLUIDO }
+
+    private final Integer alertaId;
+    private final Tipo tipo;
+    private final AlertaDefesaCivil alerta;
+
+    public AlertaDefesaCivilAlterado(Tipo tipo, AlertaDefesaCivil alerta) {
+        this.alertaId = alerta.getId();
+        this.tipo = tipo;
+        this.alerta = alerta;
+    }
+
+    public AlertaDefesaCivilAlterado(Tipo tipo, Integer alertaId) {
+        this.alertaId = alertaId;
+        this.tipo = tipo;
+        this.alerta = null;
+    }
+
+    public Integer getAlertaId() { return alertaId; }
+
+    public Tipo getTipo() { return tipo; }
+
+    // Estado gravado do alerta, inclusive deleted_at quando excluído; nulo se a releitura falhou.
+    public AlertaDefesaCivil getAlerta() { return alerta; }
+}
@@ -0,0 +1,16 @@
+package com.climaticrisks.events;
+
+import com.climaticrisks.models.Notificacao;
+
+import java.util.List;
+
+public class NotificacoesCriadas {
+
+    private final List<Notificacao> notificacoes;
+
+    public NotificacoesCriadas(List<Notificacao> notificacoes) {
+        this.notificacoes = notificacoes;
+    }
+
+    public List<Notificacao> getNotificacoes() { return notificacoes; }
+}
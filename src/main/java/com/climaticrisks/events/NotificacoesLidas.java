@@ -0,0 +1,16 @@
+package com.climaticrisks.events;
+
+public class NotificacoesLidas {
+
+    private final Integer usuarioId;
+    private final int quantidade;
+
+    public NotificacoesLidas(Integer usuarioId, int quantidade) {
+        this.usuarioId = usuarioId;
+        this.quantidade = quantidade;
+    }
+
+    public Integer getUsuarioId() { return usuarioId; }
+
+    public int getQuantidade() { return quantidade; }
+}
@@ -0,0 +1,12 @@
+package com.climaticrisks.events;
+
+public class UsuarioAlterado {
+
+    private final Integer usuarioId;
+
+    public UsuarioAlterado(Integer usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Integer getUsuarioId() { return usuarioId; }
+}
@@ -0,0 +1,84 @@
+package com.climaticrisks.filters;
+
+import com.climaticrisks.responses.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+// Com virtual threads a concorrência não é mais limitada pelo pool de workers; este filtro devolve 503
+// acima do limite em vez de deixar milhares de requisições disputando as conexões do banco.
+@Provider
+public class LimiteConcorrenciaFilter implements ContainerRequestFilter {
+
+    @ConfigProperty(name = "climaticrisks.concorrencia.max-requisicoes", defaultValue = "512")
+    int maxRequisicoes;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RoutingContext routingContext;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    private Semaphore permissoes;
+    private Counter rejeitadas;
+
+    @PostConstruct
+    void iniciar() {
+        permissoes = new Semaphore(maxRequisicoes);
+        Gauge.builder("climaticrisks.http.requisicoes.em-andamento", permissoes,
+                        semaforo -> maxRequisicoes - semaforo.availablePermits())
+                .description("Requisições REST em processamento")
+                .register(registry);
+        rejeitadas = Counter.builder("climaticrisks.http.requisicoes.rejeitadas")
+                .description("Requisições recusadas por excesso de concorrência")
+                .register(registry);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        // Streams SSE ficam abertos indefinidamente e não usam conexão do banco; não contam no limite.
+        if (isStream()) {
+            return;
+        }
+
+        if (!permissoes.tryAcquire()) {
+            rejeitadas.increment();
+            requestContext.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", 1)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(new ErrorResponse("Servidor ocupado", List.of("Muitas requisições simultâneas, tente novamente")))
+                    .build());
+            return;
+        }
+
+        // Libera só quando a resposta termina no Vert.x: depois de um StreamingOutput ser escrito, e também
+        // quando a requisição falha ou a conexão cai sem passar por um filtro de resposta.
+        routingContext.addEndHandler(fim -> permissoes.release());
+    }
+
+    private boolean isStream() {
+        Method metodo = resourceInfo.getResourceMethod();
+        Produces produces = metodo != null ? metodo.getAnnotation(Produces.class) : null;
+        return produces != null && Arrays.asList(produces.value()).contains(MediaType.SERVER_SENT_EVENTS);
+    }
+}
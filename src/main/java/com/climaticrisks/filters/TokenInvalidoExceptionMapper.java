@@ -0,0 +1,22 @@
+package com.climaticrisks.filters;
+
+import com.climaticrisks.responses.ErrorResponse;
+import com.climaticrisks.services.TokenInvalidoException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.List;
+
+@Provider
+public class TokenInvalidoExceptionMapper implements ExceptionMapper<TokenInvalidoException> {
+
+    @Override
+    public Response toResponse(TokenInvalidoException exception) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(new ErrorResponse("Token inválido", List.of("ID do usuário no token não é válido")))
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.climaticrisks.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.util.Collection;
+
+@QueryMetrics
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class QueryMetricsInterceptor {
+
+    static final String TIMER = "climaticrisks.repository.query";
+    static final String ROWS = "climaticrisks.repository.rows";
+
+    @Inject
+    MeterRegistry registry;
+
+    @AroundInvoke
+    Object medir(InvocationContext context) throws Exception {
+        String repository = context.getMethod().getDeclaringClass().getSimpleName();
+        String method = context.getMethod().getName();
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "erro";
+        try {
+            Object resultado = context.proceed();
+            outcome = "sucesso";
+            registrarLinhas(repository, method, resultado);
+            return resultado;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .description("Tempo de execução dos métodos de repositório")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    // Só coleções: um Integer/Long devolvido pode ser id, contagem ou linhas afetadas.
+    private void registrarLinhas(String repository, String method, Object resultado) {
+        if (!(resultado instanceof Collection<?> colecao)) {
+            return;
+        }
+
+        DistributionSummary.builder(ROWS)
+                .description("Linhas retornadas pelos métodos de repositório")
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(registry)
+                .record(colecao.size());
+    }
+}
@@ -1,75 +1,178 @@
 package com.climaticrisks.repositories;
 
 import com.climaticrisks.models.Alagamento;
+import com.climaticrisks.models.Endereco;
+import com.climaticrisks.responses.AlagamentoResponse;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
+@QueryMetrics
 @ApplicationScoped
 public class AlagamentoRepository {
 
+    private static final String SELECT_WITH_ENDERECO = """
+            SELECT a.id, a.usuario_id, a.endereco_id, a.descricao, a.data_ocorrencia, a.ativo,
+                   a.created_at, a.updated_at, a.deleted_at,
+                   %s
+            FROM gs_alagamento a
+            LEFT JOIN gs_endereco e ON e.id = a.endereco_id AND e.deleted_at IS NULL
+            """.formatted(EnderecoRepository.JOIN_COLUMNS);
+
     @Inject
     DataSource dataSource;
 
+    @Inject
+    EnderecoRepository enderecoRepository;
+
     @Inject
     HistoricoRiscoRepository historicoRiscoRepository;
 
+    @Inject
+    EventoMensalBairroRepository eventoMensalBairroRepository;
+
     public Alagamento save(Alagamento alagamento) {
         String sql = """
         INSERT INTO gs_alagamento (usuario_id, endereco_id, descricao, data_ocorrencia, ativo, created_at, updated_at)
-        VALUES (?, ?, ?, CURRENT_TIMESTAMP, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        VALUES (?, ?, ?, ?, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
         """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        LocalDateTime dataOcorrencia = LocalDateTime.now();
 
-            stmt.setInt(1, alagamento.getUsuarioId());
-            stmt.setInt(2, alagamento.getEnderecoId());
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
 
-            if (alagamento.getDescricao() != null && !alagamento.getDescricao().trim().isEmpty()) {
-                stmt.setString(3, alagamento.getDescricao());
-            } else {
-                stmt.setNull(3, Types.CLOB);
+            try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
+                stmt.setInt(1, alagamento.getUsuarioId());
+                stmt.setInt(2, alagamento.getEnderecoId());
+
+                if (alagamento.getDescricao() != null && !alagamento.getDescricao().trim().isEmpty()) {
+                    stmt.setString(3, alagamento.getDescricao());
+                } else {
+                    stmt.setNull(3, Types.CLOB);
+                }
+
+                stmt.setTimestamp(4, Timestamp.valueOf(dataOcorrencia));
+
+                alagamento.setId(GeneratedKeys.executeInsert(stmt));
             }
 
-            int rowsAffected = stmt.executeUpdate();
+            if (alagamento.getId() != null && alagamento.getEnderecoId() != null) {
+                historicoRiscoRepository.ajustarTotalEventos(conn, alagamento.getEnderecoId(), 1);
+                eventoMensalBairroRepository.ajustarTotal(conn, EventoMensalBairroRepository.TIPO_ALAGAMENTO,
+                        alagamento.getEnderecoId(), EventoMensalBairroRepository.periodoDe(dataOcorrencia), 1);
+            }
 
-            if (rowsAffected > 0) {
-                String selectSql = """
-                SELECT id FROM gs_alagamento 
-                WHERE usuario_id = ? AND endereco_id = ? 
-                AND created_at = (SELECT MAX(created_at) FROM gs_alagamento WHERE usuario_id = ?)
-                """;
+            conn.commit();
 
-                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                    selectStmt.setInt(1, alagamento.getUsuarioId());
-                    selectStmt.setInt(2, alagamento.getEnderecoId());
-                    selectStmt.setInt(3, alagamento.getUsuarioId());
+            alagamento.setDataOcorrencia(dataOcorrencia);
+            alagamento.setAtivo(true);
+            return alagamento;
 
-                    try (ResultSet rs = selectStmt.executeQuery()) {
-                        if (rs.next()) {
-                            alagamento.setId(rs.getInt("id"));
-                        }
-                    }
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
                 }
             }
+            throw new RuntimeException("Erro ao salvar alagamento: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
+        }
+    }
 
-            alagamento.setDataOcorrencia(LocalDateTime.now());
-            alagamento.setAtivo(true);
+    public void saveLote(List<Alagamento> alagamentos, List<Endereco> enderecos) {
+        String sql = """
+        INSERT INTO gs_alagamento (usuario_id, endereco_id, descricao, data_ocorrencia, ativo, created_at, updated_at)
+        VALUES (?, ?, ?, ?, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        """;
 
-            if (alagamento.getId() != null && alagamento.getEnderecoId() != null) {
-                historicoRiscoRepository.atualizarHistoricoRisco(alagamento.getEnderecoId());
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            Set<Integer> enderecosNovos = enderecoRepository.inserirLote(conn, enderecos);
+
+            Map<Integer, Integer> eventosPorEndereco = new LinkedHashMap<>();
+            Map<EventoMensalBairroRepository.ChaveMensal, Integer> totaisMensais = new HashMap<>();
+
+            try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
+                for (int i = 0; i < alagamentos.size(); i++) {
+                    Alagamento alagamento = alagamentos.get(i);
+                    Endereco endereco = enderecos.get(i);
+                    alagamento.setEnderecoId(endereco.getId());
+                    eventosPorEndereco.merge(endereco.getId(), 1, Integer::sum);
+
+                    stmt.setInt(1, alagamento.getUsuarioId());
+                    stmt.setInt(2, alagamento.getEnderecoId());
+
+                    if (alagamento.getDescricao() != null && !alagamento.getDescricao().trim().isEmpty()) {
+                        stmt.setString(3, alagamento.getDescricao());
+                    } else {
+                        stmt.setNull(3, Types.CLOB);
+                    }
+
+                    stmt.setTimestamp(4, Timestamp.valueOf(alagamento.getDataOcorrencia()));
+                    stmt.addBatch();
+
+                    totaisMensais.merge(new EventoMensalBairroRepository.ChaveMensal(
+                            EventoMensalBairroRepository.periodoDe(alagamento.getDataOcorrencia()), endereco.getId()), 1, Integer::sum);
+                }
+
+                List<Integer> ids = GeneratedKeys.executeBatch(stmt, alagamentos.size());
+                for (int i = 0; i < alagamentos.size(); i++) {
+                    alagamentos.get(i).setId(ids.get(i));
+                }
             }
 
-            return alagamento;
+            historicoRiscoRepository.registrarEventosLote(conn, eventosPorEndereco, enderecosNovos);
+            eventoMensalBairroRepository.ajustarTotais(conn, EventoMensalBairroRepository.TIPO_ALAGAMENTO, totaisMensais);
+
+            conn.commit();
+
+            alagamentos.forEach(alagamento -> alagamento.setAtivo(true));
 
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao salvar alagamento: " + e.getMessage(), e);
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
+            throw new RuntimeException("Erro ao salvar lote de alagamentos: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
     }
 
@@ -151,6 +254,75 @@ public class AlagamentoRepository {
         }
     }
 
+    public Optional<AlagamentoResponse> findResponseById(Integer id) {
+        String sql = SELECT_WITH_ENDERECO + """
+            WHERE a.id = ? AND a.deleted_at IS NULL
+            """;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToAlagamentoResponse(rs));
+                }
+            }
+
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar alagamento por ID", e);
+        }
+    }
+
+    public List<AlagamentoResponse> findResponsesByUsuarioId(Integer usuarioId) {
+        String sql = SELECT_WITH_ENDERECO + """
+            WHERE a.usuario_id = ? AND a.deleted_at IS NULL
+            ORDER BY a.data_ocorrencia DESC
+            """;
+
+        List<AlagamentoResponse> responses = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, usuarioId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    responses.add(mapResultSetToAlagamentoResponse(rs));
+                }
+            }
+
+            return responses;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar alagamentos por usuário", e);
+        }
+    }
+
+    public List<AlagamentoResponse> findAllResponses() {
+        String sql = SELECT_WITH_ENDERECO + """
+            WHERE a.deleted_at IS NULL
+            ORDER BY a.data_ocorrencia DESC
+            """;
+
+        List<AlagamentoResponse> responses = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                responses.add(mapResultSetToAlagamentoResponse(rs));
+            }
+
+            return responses;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar todos os alagamentos", e);
+        }
+    }
+
     public List<Alagamento> findByEnderecoId(Integer enderecoId) {
         String sql = """
             SELECT id, usuario_id, endereco_id, descricao, data_ocorrencia, ativo,
@@ -209,53 +381,152 @@ public class AlagamentoRepository {
     }
 
     public Alagamento update(Alagamento alagamento) {
+        String lockSql = """
+            SELECT endereco_id, data_ocorrencia
+            FROM gs_alagamento
+            WHERE id = ? AND deleted_at IS NULL
+            FOR UPDATE
+            """;
+
         String sql = """
             UPDATE gs_alagamento 
             SET descricao = ?, data_ocorrencia = ?, ativo = ?, updated_at = CURRENT_TIMESTAMP
             WHERE id = ? AND deleted_at IS NULL
             """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
 
-            stmt.setString(1, alagamento.getDescricao());
-            stmt.setTimestamp(2, alagamento.getDataOcorrencia() != null ?
-                    Timestamp.valueOf(alagamento.getDataOcorrencia()) : null);
-            stmt.setInt(3, alagamento.getAtivo() != null && alagamento.getAtivo() ? 1 : 0);
-            stmt.setInt(4, alagamento.getId());
+            Integer enderecoId;
+            String periodoAnterior;
+            try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                stmt.setInt(1, alagamento.getId());
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new RuntimeException("Alagamento não encontrado para atualização");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new RuntimeException("Alagamento não encontrado para atualização");
+                    }
+                    enderecoId = rs.getObject("endereco_id") != null ? rs.getInt("endereco_id") : null;
+                    Timestamp dataOcorrencia = rs.getTimestamp("data_ocorrencia");
+                    periodoAnterior = dataOcorrencia != null
+                            ? EventoMensalBairroRepository.periodoDe(dataOcorrencia.toLocalDateTime())
+                            : null;
+                }
             }
 
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, alagamento.getDescricao());
+                stmt.setTimestamp(2, alagamento.getDataOcorrencia() != null ?
+                        Timestamp.valueOf(alagamento.getDataOcorrencia()) : null);
+                stmt.setInt(3, alagamento.getAtivo() != null && alagamento.getAtivo() ? 1 : 0);
+                stmt.setInt(4, alagamento.getId());
+
+                stmt.executeUpdate();
+            }
+
+            String periodoAtual = EventoMensalBairroRepository.periodoDe(alagamento.getDataOcorrencia());
+            if (!Objects.equals(periodoAnterior, periodoAtual)) {
+                eventoMensalBairroRepository.ajustarTotal(conn, EventoMensalBairroRepository.TIPO_ALAGAMENTO, enderecoId, periodoAnterior, -1);
+                eventoMensalBairroRepository.ajustarTotal(conn, EventoMensalBairroRepository.TIPO_ALAGAMENTO, enderecoId, periodoAtual, 1);
+            }
+
+            conn.commit();
             return alagamento;
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao atualizar alagamento", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
     }
 
     public void delete(Integer id) {
+        String lockSql = """
+            SELECT endereco_id, data_ocorrencia
+            FROM gs_alagamento
+            WHERE id = ? AND deleted_at IS NULL
+            FOR UPDATE
+            """;
+
         String sql = """
             UPDATE gs_alagamento 
             SET deleted_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP
             WHERE id = ? AND deleted_at IS NULL
             """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
 
-            stmt.setInt(1, id);
+            Integer enderecoId;
+            String periodo;
+            try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new RuntimeException("Alagamento não encontrado para exclusão");
+                    }
+                    enderecoId = rs.getObject("endereco_id") != null ? rs.getInt("endereco_id") : null;
+                    Timestamp dataOcorrencia = rs.getTimestamp("data_ocorrencia");
+                    periodo = dataOcorrencia != null
+                            ? EventoMensalBairroRepository.periodoDe(dataOcorrencia.toLocalDateTime())
+                            : null;
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, id);
+                stmt.executeUpdate();
+            }
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new RuntimeException("Alagamento não encontrado para exclusão");
+            if (enderecoId != null) {
+                historicoRiscoRepository.ajustarTotalEventos(conn, enderecoId, -1);
             }
+            eventoMensalBairroRepository.ajustarTotal(conn, EventoMensalBairroRepository.TIPO_ALAGAMENTO, enderecoId, periodo, -1);
+
+            conn.commit();
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao excluir alagamento", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
     }
 
+    private AlagamentoResponse mapResultSetToAlagamentoResponse(ResultSet rs) throws SQLException {
+        return new AlagamentoResponse(mapResultSetToAlagamento(rs), EnderecoRepository.mapJoinedEndereco(rs));
+    }
+
     private Alagamento mapResultSetToAlagamento(ResultSet rs) throws SQLException {
         Alagamento alagamento = new Alagamento();
         alagamento.setId(rs.getInt("id"));
@@ -0,0 +1,52 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.models.AlertaDefesaCivil;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+@ApplicationScoped
+public class AlertaDefesaCivilReactiveRepository {
+
+    @Inject
+    LeituraReativa leitura;
+
+    @Inject
+    AlertaDefesaCivilRepository alertaRepository;
+
+    public Uni<List<AlertaDefesaCivil>> findAtivos() {
+        String sql = """
+            SELECT id, titulo, descricao, nivel_alerta, bairros_afetados, data_inicio, ativo,
+                   created_at, updated_at, deleted_at
+            FROM gs_alerta_defesa_civil 
+            WHERE ativo = 1 AND deleted_at IS NULL
+            ORDER BY data_inicio DESC
+            """;
+
+        return leitura.executar(
+                pool -> pool.query(sql)
+                        .execute()
+                        .map(rows -> LeituraReativa.listar(rows, this::mapRowToAlerta)),
+                alertaRepository::findAtivos);
+    }
+
+    private AlertaDefesaCivil mapRowToAlerta(Row row) {
+        AlertaDefesaCivil alerta = new AlertaDefesaCivil();
+        alerta.setId(row.getInteger("id"));
+        alerta.setTitulo(row.getString("titulo"));
+        alerta.setDescricao(row.getString("descricao"));
+        alerta.setBairrosAfetados(row.getString("bairros_afetados"));
+        alerta.setAtivo(Colunas.flag(row.getInteger("ativo")));
+        alerta.setNivelAlerta(Colunas.tipoRisco(row.getString("nivel_alerta")));
+
+        alerta.setDataInicio(row.getLocalDateTime("data_inicio"));
+        alerta.setCreatedAt(row.getLocalDateTime("created_at"));
+        alerta.setUpdatedAt(row.getLocalDateTime("updated_at"));
+        alerta.setDeletedAt(row.getLocalDateTime("deleted_at"));
+
+        return alerta;
+    }
+}
@@ -1,24 +1,45 @@
 package com.climaticrisks.repositories;
 
+import com.climaticrisks.events.AlertaDefesaCivilAlterado;
 import com.climaticrisks.models.AlertaDefesaCivil;
+import com.climaticrisks.requests.PageRequest;
 import com.climaticrisks.enums.TipoRisco;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
+@QueryMetrics
 @ApplicationScoped
 public class AlertaDefesaCivilRepository {
 
+    private static final Logger LOG = Logger.getLogger(AlertaDefesaCivilRepository.class);
+
     @Inject
     DataSource dataSource;
 
+    @ConfigProperty(name = "climaticrisks.export.fetch-size", defaultValue = "500")
+    int exportFetchSize;
+
+    @Inject
+    OutboxAlertaRepository outboxAlertaRepository;
+
     @Inject
-    NotificacaoRepository notificacaoRepository;
+    BairroRepository bairroRepository;
+
+    @Inject
+    Event<AlertaDefesaCivilAlterado> alertaAlterado;
 
     public AlertaDefesaCivil save(AlertaDefesaCivil alerta) {
         String sql = """
@@ -26,69 +47,67 @@ public class AlertaDefesaCivilRepository {
             VALUES (?, ?, ?, ?, ?, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
             """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // Resolvidos antes da transação: o dicionário de bairros grava em conexão própria.
+        Set<Integer> bairroIds = resolverBairros(alerta.getBairrosAfetados());
 
-            stmt.setString(1, alerta.getTitulo());
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
 
-            if (alerta.getDescricao() != null && !alerta.getDescricao().trim().isEmpty()) {
-                stmt.setString(2, alerta.getDescricao());
-            } else {
-                stmt.setNull(2, Types.CLOB);
-            }
+            try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
+                stmt.setString(1, alerta.getTitulo());
 
-            stmt.setString(3, alerta.getNivelAlerta() != null ? alerta.getNivelAlerta().getValor() : "baixo");
-            stmt.setString(4, alerta.getBairrosAfetados());
-
-            if (alerta.getDataInicio() != null) {
-                stmt.setTimestamp(5, Timestamp.valueOf(alerta.getDataInicio()));
-            } else {
-                stmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
-            }
+                if (alerta.getDescricao() != null && !alerta.getDescricao().trim().isEmpty()) {
+                    stmt.setString(2, alerta.getDescricao());
+                } else {
+                    stmt.setNull(2, Types.CLOB);
+                }
 
-            int rowsAffected = stmt.executeUpdate();
+                stmt.setString(3, alerta.getNivelAlerta() != null ? alerta.getNivelAlerta().getValor() : "baixo");
+                stmt.setString(4, alerta.getBairrosAfetados());
 
-            if (rowsAffected > 0) {
-                String selectSql = """
-                    SELECT id FROM gs_alerta_defesa_civil 
-                    WHERE titulo = ? AND created_at = (SELECT MAX(created_at) FROM gs_alerta_defesa_civil WHERE titulo = ?)
-                    """;
-
-                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                    selectStmt.setString(1, alerta.getTitulo());
-                    selectStmt.setString(2, alerta.getTitulo());
-
-                    try (ResultSet rs = selectStmt.executeQuery()) {
-                        if (rs.next()) {
-                            alerta.setId(rs.getInt("id"));
-                        }
-                    }
+                if (alerta.getDataInicio() != null) {
+                    stmt.setTimestamp(5, Timestamp.valueOf(alerta.getDataInicio()));
+                } else {
+                    stmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
                 }
 
-                if (alerta.getBairrosAfetados() != null && !alerta.getBairrosAfetados().trim().isEmpty()) {
-                    String bairroAfetado = alerta.getBairrosAfetados().trim();
-                    String tituloNotificacao = alerta.getTitulo();
-                    String mensagemNotificacao = String.format(
-                            "Novo alerta para o bairro %s: %s",
-                            bairroAfetado,
-                            alerta.getDescricao() != null ? alerta.getDescricao() : "Verifique as informações oficiais."
-                    );
-
-                    notificacaoRepository.notificarUsuariosPorBairro(
-                            bairroAfetado,
-                            tituloNotificacao,
-                            mensagemNotificacao,
-                            alerta.getNivelAlerta()
-                    );
-                }
+                alerta.setId(GeneratedKeys.executeInsert(stmt));
             }
 
+            inserirBairros(conn, alerta.getId(), bairroIds);
+
+            // O envio das notificações fica com OutboxAlertaDispatcher: o POST não espera o fan-out.
+            if (alerta.getId() != null && alerta.getBairrosAfetados() != null && !alerta.getBairrosAfetados().trim().isEmpty()) {
+                outboxAlertaRepository.registrar(conn, alerta);
+            }
+
+            conn.commit();
             alerta.setAtivo(true);
-            return alerta;
 
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao salvar alerta: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
+
+        publicar(AlertaDefesaCivilAlterado.Tipo.CRIADO, alerta.getId());
+        return alerta;
     }
 
     public Optional<AlertaDefesaCivil> findById(Integer id) {
@@ -116,28 +135,46 @@ public class AlertaDefesaCivilRepository {
         }
     }
 
-    public List<AlertaDefesaCivil> findAll() {
+    public List<AlertaDefesaCivil> findPage(PageRequest page) {
         String sql = """
             SELECT id, titulo, descricao, nivel_alerta, bairros_afetados, data_inicio, ativo,
                    created_at, updated_at, deleted_at
-            FROM gs_alerta_defesa_civil 
+            FROM gs_alerta_defesa_civil
             WHERE deleted_at IS NULL
-            ORDER BY data_inicio DESC
-            """;
+            """ + KeysetPagination.clause(page, "");
 
         List<AlertaDefesaCivil> alertas = new ArrayList<>();
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                alertas.add(mapResultSetToAlerta(rs));
+            KeysetPagination.bind(stmt, 1, page);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    alertas.add(mapResultSetToAlerta(rs));
+                }
             }
 
             return alertas;
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao buscar todos os alertas", e);
+            throw new RuntimeException("Erro ao buscar alertas", e);
+        }
+    }
+
+    public StreamingQuery<AlertaDefesaCivil> streamAll() {
+        String sql = """
+            SELECT id, titulo, descricao, nivel_alerta, bairros_afetados, data_inicio, ativo,
+                   created_at, updated_at, deleted_at
+            FROM gs_alerta_defesa_civil
+            WHERE deleted_at IS NULL
+            ORDER BY id
+            """;
+
+        try {
+            return StreamingQuery.abrir(dataSource, sql, exportFetchSize, this::mapResultSetToAlerta);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao exportar alertas", e);
         }
     }
 
@@ -202,27 +239,60 @@ public class AlertaDefesaCivilRepository {
             WHERE id = ? AND deleted_at IS NULL
             """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String deleteBairrosSql = "DELETE FROM gs_alerta_bairro WHERE alerta_id = ?";
 
-            stmt.setString(1, alerta.getTitulo());
-            stmt.setString(2, alerta.getDescricao());
-            stmt.setString(3, alerta.getNivelAlerta() != null ? alerta.getNivelAlerta().getValor() : "baixo");
-            stmt.setString(4, alerta.getBairrosAfetados());
-            stmt.setTimestamp(5, alerta.getDataInicio() != null ?
-                    Timestamp.valueOf(alerta.getDataInicio()) : null);
-            stmt.setInt(6, alerta.getAtivo() != null && alerta.getAtivo() ? 1 : 0);
-            stmt.setInt(7, alerta.getId());
+        Set<Integer> bairroIds = resolverBairros(alerta.getBairrosAfetados());
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new RuntimeException("Alerta não encontrado para atualização");
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, alerta.getTitulo());
+                stmt.setString(2, alerta.getDescricao());
+                stmt.setString(3, alerta.getNivelAlerta() != null ? alerta.getNivelAlerta().getValor() : "baixo");
+                stmt.setString(4, alerta.getBairrosAfetados());
+                stmt.setTimestamp(5, alerta.getDataInicio() != null ?
+                        Timestamp.valueOf(alerta.getDataInicio()) : null);
+                stmt.setInt(6, alerta.getAtivo() != null && alerta.getAtivo() ? 1 : 0);
+                stmt.setInt(7, alerta.getId());
+
+                int rowsAffected = stmt.executeUpdate();
+                if (rowsAffected == 0) {
+                    throw new RuntimeException("Alerta não encontrado para atualização");
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(deleteBairrosSql)) {
+                stmt.setInt(1, alerta.getId());
+                stmt.executeUpdate();
             }
+            inserirBairros(conn, alerta.getId(), bairroIds);
 
-            return alerta;
+            conn.commit();
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao atualizar alerta", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
+
+        publicar(AlertaDefesaCivilAlterado.Tipo.ATUALIZADO, alerta.getId());
+        return alerta;
     }
 
     public void delete(Integer id) {
@@ -244,6 +314,8 @@ public class AlertaDefesaCivilRepository {
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao excluir alerta", e);
         }
+
+        publicar(AlertaDefesaCivilAlterado.Tipo.EXCLUIDO, id);
     }
 
     public void desativar(Integer id) {
@@ -265,6 +337,119 @@ public class AlertaDefesaCivilRepository {
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao desativar alerta", e);
         }
+
+        publicar(AlertaDefesaCivilAlterado.Tipo.DESATIVADO, id);
+    }
+
+    // Bairros de cada alerta ativo; alertas sem bairro vêm uma vez com bairroId nulo.
+    void forEachBairroAtivo(Connection conn, BiConsumer<Integer, Integer> consumidor) throws SQLException {
+        String sql = """
+            SELECT a.id AS alerta_id, ab.bairro_id
+            FROM gs_alerta_defesa_civil a
+            LEFT JOIN gs_alerta_bairro ab ON ab.alerta_id = a.id
+            WHERE a.ativo = 1 AND a.deleted_at IS NULL
+            """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int bairroId = rs.getInt("bairro_id");
+                consumidor.accept(rs.getInt("alerta_id"), rs.wasNull() ? null : bairroId);
+            }
+        }
+    }
+
+    // Vazio se o alerta não está ativo; um conjunto com null se está ativo e não tem bairro.
+    Set<Integer> findBairroIdsAtivos(Connection conn, Integer alertaId) throws SQLException {
+        String sql = """
+            SELECT ab.bairro_id
+            FROM gs_alerta_defesa_civil a
+            LEFT JOIN gs_alerta_bairro ab ON ab.alerta_id = a.id
+            WHERE a.id = ? AND a.ativo = 1 AND a.deleted_at IS NULL
+            """;
+
+        Set<Integer> bairroIds = new LinkedHashSet<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, alertaId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int bairroId = rs.getInt("bairro_id");
+                    bairroIds.add(rs.wasNull() ? null : bairroId);
+                }
+            }
+        }
+
+        return bairroIds;
+    }
+
+    private Set<Integer> resolverBairros(String bairrosAfetados) {
+        Set<Integer> bairroIds = new LinkedHashSet<>();
+        for (String bairro : BairroRepository.separar(bairrosAfetados)) {
+            Integer bairroId = bairroRepository.resolverId(bairro);
+            if (bairroId != null) {
+                bairroIds.add(bairroId);
+            }
+        }
+        return bairroIds;
+    }
+
+    private static void inserirBairros(Connection conn, Integer alertaId, Set<Integer> bairroIds) throws SQLException {
+        if (alertaId == null || bairroIds.isEmpty()) {
+            return;
+        }
+
+        String sql = "INSERT INTO gs_alerta_bairro (alerta_id, bairro_id) VALUES (?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Integer bairroId : bairroIds) {
+                stmt.setInt(1, alertaId);
+                stmt.setInt(2, bairroId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Roda depois do commit: uma falha ao reler ou num observador não pode virar erro de uma gravação
+    // já confirmada, senão o cliente repete o POST e o alerta sai em dobro.
+    private void publicar(AlertaDefesaCivilAlterado.Tipo tipo, Integer id) {
+        AlertaDefesaCivilAlterado evento;
+        try (Connection conn = dataSource.getConnection()) {
+            evento = new AlertaDefesaCivilAlterado(tipo, buscarGravado(conn, id));
+        } catch (SQLException | RuntimeException e) {
+            // Sem a releitura o evento vai só com o id: caches e índices ainda se invalidam e relêem depois.
+            LOG.warnf(e, "Falha ao reler o alerta %d após %s", id, tipo);
+            evento = new AlertaDefesaCivilAlterado(tipo, id);
+        }
+
+        try {
+            alertaAlterado.fire(evento);
+        } catch (RuntimeException e) {
+            LOG.warnf(e, "Falha ao publicar alteração %s do alerta %d", tipo, id);
+        }
+    }
+
+    // Relê a linha gravada, inclusive de alertas excluídos.
+    private AlertaDefesaCivil buscarGravado(Connection conn, Integer id) throws SQLException {
+        String sql = """
+            SELECT id, titulo, descricao, nivel_alerta, bairros_afetados, data_inicio, ativo,
+                   created_at, updated_at, deleted_at
+            FROM gs_alerta_defesa_civil
+            WHERE id = ?
+            """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Alerta " + id + " não encontrado após a gravação");
+                }
+                return mapResultSetToAlerta(rs);
+            }
+        }
     }
 
     private AlertaDefesaCivil mapResultSetToAlerta(ResultSet rs) throws SQLException {
@@ -273,16 +458,8 @@ public class AlertaDefesaCivilRepository {
         alerta.setTitulo(rs.getString("titulo"));
         alerta.setDescricao(rs.getString("descricao"));
         alerta.setBairrosAfetados(rs.getString("bairros_afetados"));
-        alerta.setAtivo(rs.getInt("ativo") == 1);
-
-        String nivelAlerta = rs.getString("nivel_alerta");
-        if (nivelAlerta != null) {
-            switch (nivelAlerta.toLowerCase()) {
-                case "baixo" -> alerta.setNivelAlerta(TipoRisco.BAIXO);
-                case "medio", "médio" -> alerta.setNivelAlerta(TipoRisco.MEDIO);
-                case "alto" -> alerta.setNivelAlerta(TipoRisco.ALTO);
-            }
-        }
+        alerta.setAtivo(Colunas.flag(rs.getInt("ativo")));
+        alerta.setNivelAlerta(Colunas.tipoRisco(rs.getString("nivel_alerta")));
 
         Timestamp dataInicio = rs.getTimestamp("data_inicio");
         if (dataInicio != null) {
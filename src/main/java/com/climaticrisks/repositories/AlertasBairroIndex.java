@@ -0,0 +1,174 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.events.AlertaDefesaCivilAlterado;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@ApplicationScoped
+public class AlertasBairroIndex {
+
+    private static final Integer SEM_BAIRRO = 0;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    AlertaDefesaCivilRepository alertaRepository;
+
+    // Conjuntos publicados nunca são alterados: as escritas trocam por uma cópia e as leituras dispensam o lock.
+    private volatile Map<Integer, Set<Integer>> alertasPorBairro = new ConcurrentHashMap<>();
+
+    // Só acessado sob o lock do índice.
+    private final Map<Integer, Set<Integer>> bairrosDoAlerta = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile boolean carregado;
+
+    void carregarNaSubida(@Observes StartupEvent evento) {
+        try {
+            carregar();
+        } catch (RuntimeException e) {
+            // Banco indisponível na subida: a carga é refeita no primeiro uso.
+        }
+    }
+
+    public void carregar() {
+        lock.lock();
+        try {
+            Map<Integer, Set<Integer>> novos = new HashMap<>();
+            bairrosDoAlerta.clear();
+
+            try (Connection conn = dataSource.getConnection()) {
+                alertaRepository.forEachBairroAtivo(conn, (alertaId, bairroId) -> {
+                    Integer chave = bairroId != null ? bairroId : SEM_BAIRRO;
+                    novos.computeIfAbsent(chave, k -> new HashSet<>()).add(alertaId);
+                    bairrosDoAlerta.computeIfAbsent(alertaId, k -> new HashSet<>()).add(chave);
+                });
+            } catch (SQLException e) {
+                carregado = false;
+                throw new RuntimeException("Erro ao carregar índice de alertas por bairro: " + e.getMessage(), e);
+            }
+
+            Map<Integer, Set<Integer>> publicados = new ConcurrentHashMap<>();
+            novos.forEach((bairroId, alertaIds) -> publicados.put(bairroId, Set.copyOf(alertaIds)));
+
+            alertasPorBairro = publicados;
+            carregado = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Set<Integer> alertaIds(Collection<Integer> bairroIds) {
+        garantirCarregado();
+
+        Map<Integer, Set<Integer>> atual = alertasPorBairro;
+
+        Set<Integer> ids = new HashSet<>(atual.getOrDefault(SEM_BAIRRO, Set.of()));
+        for (Integer bairroId : bairroIds) {
+            ids.addAll(atual.getOrDefault(bairroId, Set.of()));
+        }
+        return ids;
+    }
+
+    void onAlertaAlterado(@Observes AlertaDefesaCivilAlterado evento) {
+        if (!carregado) {
+            return;
+        }
+
+        // Sem o alerta relido, a publicação falhou no banco: a próxima leitura recarrega o índice inteiro.
+        if (evento.getAlerta() == null) {
+            carregado = false;
+            return;
+        }
+
+        try {
+            atualizarAlerta(evento.getAlertaId());
+        } catch (RuntimeException e) {
+            carregado = false;
+        }
+    }
+
+    private void garantirCarregado() {
+        if (!carregado) {
+            lock.lock();
+            try {
+                if (!carregado) {
+                    carregar();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // A releitura fica sob o lock para que escritas concorrentes não se apliquem fora de ordem.
+    private void atualizarAlerta(Integer alertaId) {
+        lock.lock();
+        try {
+            Set<Integer> bairros = new HashSet<>();
+            try (Connection conn = dataSource.getConnection()) {
+                for (Integer bairroId : alertaRepository.findBairroIdsAtivos(conn, alertaId)) {
+                    bairros.add(bairroId != null ? bairroId : SEM_BAIRRO);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao atualizar índice de alertas por bairro: " + e.getMessage(), e);
+            }
+
+            Set<Integer> anteriores = bairrosDoAlerta.getOrDefault(alertaId, Set.of());
+            for (Integer anterior : anteriores) {
+                if (!bairros.contains(anterior)) {
+                    remover(anterior, alertaId);
+                }
+            }
+            for (Integer novo : bairros) {
+                if (!anteriores.contains(novo)) {
+                    adicionar(novo, alertaId);
+                }
+            }
+
+            if (bairros.isEmpty()) {
+                bairrosDoAlerta.remove(alertaId);
+            } else {
+                bairrosDoAlerta.put(alertaId, bairros);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adicionar(Integer bairroId, Integer alertaId) {
+        Set<Integer> copia = new HashSet<>(alertasPorBairro.getOrDefault(bairroId, Set.of()));
+        copia.add(alertaId);
+        alertasPorBairro.put(bairroId, Set.copyOf(copia));
+    }
+
+    private void remover(Integer bairroId, Integer alertaId) {
+        Set<Integer> atual = alertasPorBairro.get(bairroId);
+        if (atual == null) {
+            return;
+        }
+
+        Set<Integer> copia = new HashSet<>(atual);
+        copia.remove(alertaId);
+        if (copia.isEmpty()) {
+            alertasPorBairro.remove(bairroId);
+        } else {
+            alertasPorBairro.put(bairroId, Set.copyOf(copia));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.metrics.QueryMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@QueryMetrics
+@ApplicationScoped
+public class BairroRepository {
+
+    @Inject
+    DataSource dataSource;
+
+    // Bairros são poucos e o id de uma chave nunca muda: o dicionário não expira.
+    private final ConcurrentMap<String, Integer> idsPorChave = new ConcurrentHashMap<>();
+
+    public static String chave(String bairro) {
+        return EnderecoChave.bairro(bairro);
+    }
+
+    // Nomes de uma lista em texto livre como bairros_afetados, separados por vírgula ou ponto e vírgula.
+    public static List<String> separar(String bairros) {
+        List<String> nomes = new ArrayList<>();
+        if (bairros == null) {
+            return nomes;
+        }
+
+        for (String nome : bairros.split("[,;]")) {
+            if (!nome.isBlank()) {
+                nomes.add(nome.trim());
+            }
+        }
+        return nomes;
+    }
+
+    public Integer resolverId(String bairro) {
+        String chave = EnderecoChave.bairro(bairro);
+        if (chave.isEmpty()) {
+            return null;
+        }
+
+        Integer id = idsPorChave.get(chave);
+        if (id != null) {
+            return id;
+        }
+
+        // Conexão própria em autocommit: o id só entra no dicionário depois de gravado,
+        // mesmo que a transação de quem pediu seja desfeita.
+        try (Connection conn = dataSource.getConnection()) {
+            id = buscarId(conn, chave);
+
+            if (id == null) {
+                String sql = """
+                    INSERT INTO gs_bairro (chave, nome, created_at)
+                    VALUES (?, ?, CURRENT_TIMESTAMP)
+                    """;
+
+                try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
+                    stmt.setString(1, chave);
+                    stmt.setString(2, bairro.trim());
+                    id = GeneratedKeys.executeInsert(stmt);
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    id = buscarId(conn, chave);
+                    if (id == null) {
+                        throw e;
+                    }
+                }
+            }
+
+            idsPorChave.putIfAbsent(chave, id);
+            return id;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao resolver bairro: " + e.getMessage(), e);
+        }
+    }
+
+    public Optional<Integer> findIdByNome(String bairro) {
+        String chave = EnderecoChave.bairro(bairro);
+        if (chave.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Integer id = idsPorChave.get(chave);
+        if (id != null) {
+            return Optional.of(id);
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            id = buscarId(conn, chave);
+            if (id == null) {
+                return Optional.empty();
+            }
+
+            idsPorChave.putIfAbsent(chave, id);
+            return Optional.of(id);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar bairro: " + e.getMessage(), e);
+        }
+    }
+
+    private Integer buscarId(Connection conn, String chave) throws SQLException {
+        String sql = "SELECT id FROM gs_bairro WHERE chave = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, chave);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("id") : null;
+            }
+        }
+    }
+}
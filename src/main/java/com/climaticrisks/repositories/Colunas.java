@@ -0,0 +1,27 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.enums.TipoRisco;
+
+// Conversões de coluna usadas pelos mapeamentos JDBC e reativos, para que os dois caminhos devolvam o mesmo objeto.
+final class Colunas {
+
+    private Colunas() {
+    }
+
+    static TipoRisco tipoRisco(String valor) {
+        if (valor == null) {
+            return null;
+        }
+
+        return switch (valor.toLowerCase()) {
+            case "baixo" -> TipoRisco.BAIXO;
+            case "medio", "médio" -> TipoRisco.MEDIO;
+            case "alto" -> TipoRisco.ALTO;
+            default -> null;
+        };
+    }
+
+    static boolean flag(Integer valor) {
+        return valor != null && valor == 1;
+    }
+}
@@ -1,78 +1,180 @@
 package com.climaticrisks.repositories;
 
 import com.climaticrisks.models.Deslizamento;
+import com.climaticrisks.models.Endereco;
+import com.climaticrisks.responses.DeslizamentoResponse;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
+@QueryMetrics
 @ApplicationScoped
 public class DeslizamentoRepository {
 
+    private static final String SELECT_WITH_ENDERECO = """
+            SELECT d.id, d.usuario_id, d.endereco_id, d.descricao, d.data_ocorrencia, d.ativo,
+                   d.created_at, d.updated_at, d.deleted_at,
+                   %s
+            FROM gs_deslizamento d
+            LEFT JOIN gs_endereco e ON e.id = d.endereco_id AND e.deleted_at IS NULL
+            """.formatted(EnderecoRepository.JOIN_COLUMNS);
+
     @Inject
     DataSource dataSource;
 
+    @Inject
+    EnderecoRepository enderecoRepository;
+
     @Inject
     HistoricoRiscoRepository historicoRiscoRepository;
 
+    @Inject
+    EventoMensalBairroRepository eventoMensalBairroRepository;
+
     public Deslizamento save(Deslizamento deslizamento) {
         String sql = """
         INSERT INTO gs_deslizamento (usuario_id, endereco_id, descricao, data_ocorrencia, ativo, created_at, updated_at)
-        VALUES (?, ?, ?, CURRENT_TIMESTAMP, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        VALUES (?, ?, ?, ?, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
         """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        LocalDateTime dataOcorrencia = LocalDateTime.now();
 
-            stmt.setInt(1, deslizamento.getUsuarioId());
-            stmt.setInt(2, deslizamento.getEnderecoId());
-
-            if (deslizamento.getDescricao() != null && !deslizamento.getDescricao().trim().isEmpty()) {
-                stmt.setString(3, deslizamento.getDescricao());
-            } else {
-                stmt.setNull(3, Types.CLOB);
-            }
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
 
-            int rowsAffected = stmt.executeUpdate();
+            try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
+                stmt.setInt(1, deslizamento.getUsuarioId());
+                stmt.setInt(2, deslizamento.getEnderecoId());
 
-            if (rowsAffected > 0) {
-                String selectSql = """
-                SELECT id FROM gs_deslizamento 
-                WHERE usuario_id = ? AND endereco_id = ? 
-                AND created_at = (SELECT MAX(created_at) FROM gs_deslizamento WHERE usuario_id = ?)
-                """;
+                if (deslizamento.getDescricao() != null && !deslizamento.getDescricao().trim().isEmpty()) {
+                    stmt.setString(3, deslizamento.getDescricao());
+                } else {
+                    stmt.setNull(3, Types.CLOB);
+                }
 
-                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                    selectStmt.setInt(1, deslizamento.getUsuarioId());
-                    selectStmt.setInt(2, deslizamento.getEnderecoId());
-                    selectStmt.setInt(3, deslizamento.getUsuarioId());
+                stmt.setTimestamp(4, Timestamp.valueOf(dataOcorrencia));
 
-                    try (ResultSet rs = selectStmt.executeQuery()) {
-                        if (rs.next()) {
-                            deslizamento.setId(rs.getInt("id"));
-                        }
-                    }
-                }
+                deslizamento.setId(GeneratedKeys.executeInsert(stmt));
             }
 
-            deslizamento.setDataOcorrencia(LocalDateTime.now());
-            deslizamento.setAtivo(true);
-
             if (deslizamento.getId() != null && deslizamento.getEnderecoId() != null) {
-                historicoRiscoRepository.atualizarHistoricoRisco(deslizamento.getEnderecoId());
+                historicoRiscoRepository.ajustarTotalEventos(conn, deslizamento.getEnderecoId(), 1);
+                eventoMensalBairroRepository.ajustarTotal(conn, EventoMensalBairroRepository.TIPO_DESLIZAMENTO,
+                        deslizamento.getEnderecoId(), EventoMensalBairroRepository.periodoDe(dataOcorrencia), 1);
             }
 
+            conn.commit();
+
+            deslizamento.setDataOcorrencia(dataOcorrencia);
+            deslizamento.setAtivo(true);
             return deslizamento;
 
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao salvar deslizamento: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
     }
 
+    public void saveLote(List<Deslizamento> deslizamentos, List<Endereco> enderecos) {
+        String sql = """
+        INSERT INTO gs_deslizamento (usuario_id, endereco_id, descricao, data_ocorrencia, ativo, created_at, updated_at)
+        VALUES (?, ?, ?, ?, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        """;
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            Set<Integer> enderecosNovos = enderecoRepository.inserirLote(conn, enderecos);
+
+            Map<Integer, Integer> eventosPorEndereco = new LinkedHashMap<>();
+            Map<EventoMensalBairroRepository.ChaveMensal, Integer> totaisMensais = new HashMap<>();
+
+            try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
+                for (int i = 0; i < deslizamentos.size(); i++) {
+                    Deslizamento deslizamento = deslizamentos.get(i);
+                    Endereco endereco = enderecos.get(i);
+                    deslizamento.setEnderecoId(endereco.getId());
+                    eventosPorEndereco.merge(endereco.getId(), 1, Integer::sum);
+
+                    stmt.setInt(1, deslizamento.getUsuarioId());
+                    stmt.setInt(2, deslizamento.getEnderecoId());
+
+                    if (deslizamento.getDescricao() != null && !deslizamento.getDescricao().trim().isEmpty()) {
+                        stmt.setString(3, deslizamento.getDescricao());
+                    } else {
+                        stmt.setNull(3, Types.CLOB);
+                    }
+
+                    stmt.setTimestamp(4, Timestamp.valueOf(deslizamento.getDataOcorrencia()));
+                    stmt.addBatch();
+
+                    totaisMensais.merge(new EventoMensalBairroRepository.ChaveMensal(
+                            EventoMensalBairroRepository.periodoDe(deslizamento.getDataOcorrencia()), endereco.getId()), 1, Integer::sum);
+                }
+
+                List<Integer> ids = GeneratedKeys.executeBatch(stmt, deslizamentos.size());
+                for (int i = 0; i < deslizamentos.size(); i++) {
+                    deslizamentos.get(i).setId(ids.get(i));
+                }
+            }
+
+            historicoRiscoRepository.registrarEventosLote(conn, eventosPorEndereco, enderecosNovos);
+            eventoMensalBairroRepository.ajustarTotais(conn, EventoMensalBairroRepository.TIPO_DESLIZAMENTO, totaisMensais);
+
+            conn.commit();
+
+            deslizamentos.forEach(deslizamento -> deslizamento.setAtivo(true));
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
+            throw new RuntimeException("Erro ao salvar lote de deslizamentos: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
+        }
+    }
 
     public Optional<Deslizamento> findById(Integer id) {
         String sql = """
@@ -152,6 +254,75 @@ public class DeslizamentoRepository {
         }
     }
 
+    public Optional<DeslizamentoResponse> findResponseById(Integer id) {
+        String sql = SELECT_WITH_ENDERECO + """
+            WHERE d.id = ? AND d.deleted_at IS NULL
+            """;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToDeslizamentoResponse(rs));
+                }
+            }
+
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar deslizamento por ID", e);
+        }
+    }
+
+    public List<DeslizamentoResponse> findResponsesByUsuarioId(Integer usuarioId) {
+        String sql = SELECT_WITH_ENDERECO + """
+            WHERE d.usuario_id = ? AND d.deleted_at IS NULL
+            ORDER BY d.data_ocorrencia DESC
+            """;
+
+        List<DeslizamentoResponse> responses = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, usuarioId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    responses.add(mapResultSetToDeslizamentoResponse(rs));
+                }
+            }
+
+            return responses;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar deslizamentos por usuário", e);
+        }
+    }
+
+    public List<DeslizamentoResponse> findAllResponses() {
+        String sql = SELECT_WITH_ENDERECO + """
+            WHERE d.deleted_at IS NULL
+            ORDER BY d.data_ocorrencia DESC
+            """;
+
+        List<DeslizamentoResponse> responses = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                responses.add(mapResultSetToDeslizamentoResponse(rs));
+            }
+
+            return responses;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar todos os deslizamentos", e);
+        }
+    }
+
     public List<Deslizamento> findByEnderecoId(Integer enderecoId) {
         String sql = """
             SELECT id, usuario_id, endereco_id, descricao, data_ocorrencia, ativo,
@@ -210,53 +381,152 @@ public class DeslizamentoRepository {
     }
 
     public Deslizamento update(Deslizamento deslizamento) {
+        String lockSql = """
+            SELECT endereco_id, data_ocorrencia
+            FROM gs_deslizamento
+            WHERE id = ? AND deleted_at IS NULL
+            FOR UPDATE
+            """;
+
         String sql = """
             UPDATE gs_deslizamento 
             SET descricao = ?, data_ocorrencia = ?, ativo = ?, updated_at = CURRENT_TIMESTAMP
             WHERE id = ? AND deleted_at IS NULL
             """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
 
-            stmt.setString(1, deslizamento.getDescricao());
-            stmt.setTimestamp(2, deslizamento.getDataOcorrencia() != null ?
-                    Timestamp.valueOf(deslizamento.getDataOcorrencia()) : null);
-            stmt.setInt(3, deslizamento.getAtivo() != null && deslizamento.getAtivo() ? 1 : 0);
-            stmt.setInt(4, deslizamento.getId());
+            Integer enderecoId;
+            String periodoAnterior;
+            try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                stmt.setInt(1, deslizamento.getId());
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new RuntimeException("Deslizamento não encontrado para atualização");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new RuntimeException("Deslizamento não encontrado para atualização");
+                    }
+                    enderecoId = rs.getObject("endereco_id") != null ? rs.getInt("endereco_id") : null;
+                    Timestamp dataOcorrencia = rs.getTimestamp("data_ocorrencia");
+                    periodoAnterior = dataOcorrencia != null
+                            ? EventoMensalBairroRepository.periodoDe(dataOcorrencia.toLocalDateTime())
+                            : null;
+                }
             }
 
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, deslizamento.getDescricao());
+                stmt.setTimestamp(2, deslizamento.getDataOcorrencia() != null ?
+                        Timestamp.valueOf(deslizamento.getDataOcorrencia()) : null);
+                stmt.setInt(3, deslizamento.getAtivo() != null && deslizamento.getAtivo() ? 1 : 0);
+                stmt.setInt(4, deslizamento.getId());
+
+                stmt.executeUpdate();
+            }
+
+            String periodoAtual = EventoMensalBairroRepository.periodoDe(deslizamento.getDataOcorrencia());
+            if (!Objects.equals(periodoAnterior, periodoAtual)) {
+                eventoMensalBairroRepository.ajustarTotal(conn, EventoMensalBairroRepository.TIPO_DESLIZAMENTO, enderecoId, periodoAnterior, -1);
+                eventoMensalBairroRepository.ajustarTotal(conn, EventoMensalBairroRepository.TIPO_DESLIZAMENTO, enderecoId, periodoAtual, 1);
+            }
+
+            conn.commit();
             return deslizamento;
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao atualizar deslizamento", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
     }
 
     public void delete(Integer id) {
+        String lockSql = """
+            SELECT endereco_id, data_ocorrencia
+            FROM gs_deslizamento
+            WHERE id = ? AND deleted_at IS NULL
+            FOR UPDATE
+            """;
+
         String sql = """
             UPDATE gs_deslizamento 
             SET deleted_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP
             WHERE id = ? AND deleted_at IS NULL
             """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
 
-            stmt.setInt(1, id);
+            Integer enderecoId;
+            String periodo;
+            try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new RuntimeException("Deslizamento não encontrado para exclusão");
+                    }
+                    enderecoId = rs.getObject("endereco_id") != null ? rs.getInt("endereco_id") : null;
+                    Timestamp dataOcorrencia = rs.getTimestamp("data_ocorrencia");
+                    periodo = dataOcorrencia != null
+                            ? EventoMensalBairroRepository.periodoDe(dataOcorrencia.toLocalDateTime())
+                            : null;
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, id);
+                stmt.executeUpdate();
+            }
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new RuntimeException("Deslizamento não encontrado para exclusão");
+            if (enderecoId != null) {
+                historicoRiscoRepository.ajustarTotalEventos(conn, enderecoId, -1);
             }
+            eventoMensalBairroRepository.ajustarTotal(conn, EventoMensalBairroRepository.TIPO_DESLIZAMENTO, enderecoId, periodo, -1);
+
+            conn.commit();
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao excluir deslizamento", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
     }
 
+    private DeslizamentoResponse mapResultSetToDeslizamentoResponse(ResultSet rs) throws SQLException {
+        return new DeslizamentoResponse(mapResultSetToDeslizamento(rs), EnderecoRepository.mapJoinedEndereco(rs));
+    }
+
     private Deslizamento mapResultSetToDeslizamento(ResultSet rs) throws SQLException {
         Deslizamento deslizamento = new Deslizamento();
         deslizamento.setId(rs.getInt("id"));
@@ -0,0 +1,39 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.models.Endereco;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+final class EnderecoChave {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern NAO_DIGITOS = Pattern.compile("\\D+");
+
+    private EnderecoChave() {
+    }
+
+    // logradouro|bairro|cep sem acentos, em maiúsculas e com espaços colapsados; o CEP fica só com dígitos.
+    static String de(Endereco endereco) {
+        return normalizar(endereco.getLogradouro()) + "|" + normalizar(endereco.getBairro()) + "|" + digitos(endereco.getCep());
+    }
+
+    // Chave do dicionário de bairros: "Jardim Ângela" e "JARDIM  ANGELA" resolvem para "JARDIM ANGELA".
+    static String bairro(String bairro) {
+        return normalizar(bairro);
+    }
+
+    private static String normalizar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(valor, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.trim()).replaceAll(" ").toUpperCase(Locale.ROOT);
+    }
+
+    private static String digitos(String valor) {
+        return valor != null ? NAO_DIGITOS.matcher(valor).replaceAll("") : "";
+    }
+}
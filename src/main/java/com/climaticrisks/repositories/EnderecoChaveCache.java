@@ -0,0 +1,39 @@
+package com.climaticrisks.repositories;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ApplicationScoped
+class EnderecoChaveCache {
+
+    @ConfigProperty(name = "climaticrisks.cache.endereco-chave.max-entradas", defaultValue = "10000")
+    int maxEntradas;
+
+    private Map<String, Integer> idsPorChave;
+
+    @PostConstruct
+    void iniciar() {
+        idsPorChave = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    synchronized Integer get(String chave) {
+        return idsPorChave.get(chave);
+    }
+
+    synchronized void put(String chave, Integer id) {
+        idsPorChave.put(chave, id);
+    }
+
+    synchronized void removerId(Integer id) {
+        idsPorChave.values().removeIf(id::equals);
+    }
+}
@@ -1,64 +1,210 @@
 package com.climaticrisks.repositories;
 
+import com.climaticrisks.events.UsuarioAlterado;
 import com.climaticrisks.models.Endereco;
+import com.climaticrisks.requests.PageRequest;
 import com.climaticrisks.enums.*;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+@QueryMetrics
 @ApplicationScoped
 public class EnderecoRepository {
 
-    @Inject
-    DataSource dataSource;
+    static final String JOIN_COLUMNS = """
+            e.id AS e_id, e.logradouro AS e_logradouro, e.bairro AS e_bairro, e.cep AS e_cep,
+                   e.tipo_solo AS e_tipo_solo, e.altitude_rua AS e_altitude_rua,
+                   e.tipo_construcao AS e_tipo_construcao, e.bairro_risco AS e_bairro_risco,
+                   e.proximo_corrego AS e_proximo_corrego, e.created_at AS e_created_at,
+                   e.updated_at AS e_updated_at, e.deleted_at AS e_deleted_at""";
 
-    public Endereco save(Endereco endereco) {
-        String sql = """
+    private static final String INSERT_SQL = """
         INSERT INTO gs_endereco (logradouro, bairro, cep, tipo_solo, altitude_rua, 
-                               tipo_construcao, bairro_risco, proximo_corrego)
-        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                               tipo_construcao, bairro_risco, proximo_corrego, chave_normalizada, bairro_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
         """;
 
+    // Mesma expressão do índice ux_endereco_chave, para que a busca use o índice.
+    private static final String CHAVE_ATIVA = "CASE WHEN deleted_at IS NULL THEN chave_normalizada END";
+
+    private static final int MAX_CHAVES_POR_CONSULTA = 1000;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    EnderecoChaveCache chaveCache;
+
+    @Inject
+    BairroRepository bairroRepository;
+
+    @Inject
+    EventoMensalBairroRepository eventoMensalBairroRepository;
+
+    @Inject
+    Event<UsuarioAlterado> usuarioAlterado;
+
+    @ConfigProperty(name = "climaticrisks.export.fetch-size", defaultValue = "500")
+    int exportFetchSize;
+
+    // Endereço de usuário: fica sem chave, porque dois moradores da mesma rua e CEP são endereços distintos.
+    public Endereco save(Endereco endereco) {
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"ID"})) {
+             PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, INSERT_SQL)) {
 
-            stmt.setString(1, endereco.getLogradouro());
-            stmt.setString(2, endereco.getBairro());
-            stmt.setString(3, endereco.getCep());
-            stmt.setString(4, endereco.getTipoSolo() != null ? endereco.getTipoSolo().getValor() : "asfalto");
-            stmt.setString(5, endereco.getAltitudeRua() != null ? endereco.getAltitudeRua().getValor() : "nivel");
-            stmt.setString(6, endereco.getTipoConstrucao() != null ? endereco.getTipoConstrucao().getValor() : "alvernaria");
-            stmt.setString(7, endereco.getBairroRisco() != null ? endereco.getBairroRisco().getValor() : "baixo");
-            stmt.setInt(8, endereco.getProximoCorrego() != null && endereco.getProximoCorrego() ? 1 : 0);
+            bindInsert(stmt, endereco, bairroRepository.resolverId(endereco.getBairro()), null);
 
-            stmt.executeUpdate();
+            endereco.setId(GeneratedKeys.executeInsert(stmt));
 
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    try {
-                        endereco.setId(rs.getInt(1));
-                    } catch (SQLException e) {
-                        String idStr = rs.getString(1);
-                        if (idStr != null && idStr.matches("\\d+")) {
-                            endereco.setId(Integer.parseInt(idStr));
-                        } else {
-                            throw new RuntimeException("ID gerado não é válido: " + idStr);
-                        }
+            return endereco;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao salvar endereço: " + e.getMessage(), e);
+        }
+    }
+
+    public Endereco findOrCreate(Endereco endereco) {
+        String chave = EnderecoChave.de(endereco);
+
+        Integer id = chaveCache.get(chave);
+        if (id != null) {
+            endereco.setId(id);
+            return endereco;
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            id = buscarIdsPorChave(conn, List.of(chave)).get(chave);
+
+            if (id == null) {
+                try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, INSERT_SQL)) {
+                    bindInsert(stmt, endereco, bairroRepository.resolverId(endereco.getBairro()), chave);
+                    id = GeneratedKeys.executeInsert(stmt);
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    // Outro relato do mesmo endereço inseriu primeiro.
+                    id = buscarIdsPorChave(conn, List.of(chave)).get(chave);
+                    if (id == null) {
+                        throw e;
                     }
                 }
             }
 
+            chaveCache.put(chave, id);
+            endereco.setId(id);
             return endereco;
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao salvar endereço: " + e.getMessage(), e);
         }
     }
 
+    Set<Integer> inserirLote(Connection conn, List<Endereco> enderecos) throws SQLException {
+        Map<String, List<Endereco>> pendentes = new LinkedHashMap<>();
+        for (Endereco endereco : enderecos) {
+            String chave = EnderecoChave.de(endereco);
+            Integer id = chaveCache.get(chave);
+            if (id != null) {
+                endereco.setId(id);
+            } else {
+                pendentes.computeIfAbsent(chave, k -> new ArrayList<>()).add(endereco);
+            }
+        }
+
+        if (pendentes.isEmpty()) {
+            return Set.of();
+        }
+
+        Map<String, Integer> existentes = buscarIdsPorChave(conn, pendentes.keySet());
+        existentes.forEach((chave, id) -> {
+            pendentes.remove(chave).forEach(endereco -> endereco.setId(id));
+            chaveCache.put(chave, id);
+        });
+
+        if (pendentes.isEmpty()) {
+            return Set.of();
+        }
+
+        // Um INSERT por chave nova; os ids só entram no cache depois do commit, pela próxima busca.
+        List<Map.Entry<String, List<Endereco>>> grupos = new ArrayList<>(pendentes.entrySet());
+        try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, INSERT_SQL)) {
+            for (Map.Entry<String, List<Endereco>> grupo : grupos) {
+                Endereco endereco = grupo.getValue().get(0);
+                bindInsert(stmt, endereco, bairroRepository.resolverId(endereco.getBairro()), grupo.getKey());
+                stmt.addBatch();
+            }
+
+            List<Integer> ids = GeneratedKeys.executeBatch(stmt, grupos.size());
+            Set<Integer> novos = new HashSet<>(ids);
+            for (int i = 0; i < grupos.size(); i++) {
+                Integer id = ids.get(i);
+                grupos.get(i).getValue().forEach(endereco -> endereco.setId(id));
+            }
+            return novos;
+        }
+    }
+
+    private Map<String, Integer> buscarIdsPorChave(Connection conn, Collection<String> chaves) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> lista = new ArrayList<>(chaves);
+
+        for (int inicio = 0; inicio < lista.size(); inicio += MAX_CHAVES_POR_CONSULTA) {
+            List<String> parte = lista.subList(inicio, Math.min(inicio + MAX_CHAVES_POR_CONSULTA, lista.size()));
+            String sql = """
+                SELECT id, chave_normalizada
+                FROM gs_endereco
+                WHERE %s IN (%s)
+                """.formatted(CHAVE_ATIVA, String.join(", ", Collections.nCopies(parte.size(), "?")));
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < parte.size(); i++) {
+                    stmt.setString(i + 1, parte.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.put(rs.getString("chave_normalizada"), rs.getInt("id"));
+                    }
+                }
+            }
+        }
+
+        return ids;
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Endereco endereco, Integer bairroId, String chave) throws SQLException {
+        stmt.setString(1, endereco.getLogradouro());
+        stmt.setString(2, endereco.getBairro());
+        stmt.setString(3, endereco.getCep());
+        stmt.setString(4, endereco.getTipoSolo() != null ? endereco.getTipoSolo().getValor() : "asfalto");
+        stmt.setString(5, endereco.getAltitudeRua() != null ? endereco.getAltitudeRua().getValor() : "nivel");
+        stmt.setString(6, endereco.getTipoConstrucao() != null ? endereco.getTipoConstrucao().getValor() : "alvernaria");
+        stmt.setString(7, endereco.getBairroRisco() != null ? endereco.getBairroRisco().getValor() : "baixo");
+        stmt.setInt(8, endereco.getProximoCorrego() != null && endereco.getProximoCorrego() ? 1 : 0);
+        stmt.setString(9, chave);
+        bindBairroId(stmt, 10, bairroId);
+    }
+
+    private static void bindBairroId(PreparedStatement stmt, int index, Integer bairroId) throws SQLException {
+        if (bairroId != null) {
+            stmt.setInt(index, bairroId);
+        } else {
+            stmt.setNull(index, Types.INTEGER);
+        }
+    }
+
 
     public Optional<Endereco> findById(Integer id) {
         String sql = """
@@ -86,65 +232,186 @@ public class EnderecoRepository {
         }
     }
 
-    public List<Endereco> findAll() {
+    public List<Endereco> findPage(PageRequest page) {
         String sql = """
             SELECT id, logradouro, bairro, cep, tipo_solo, altitude_rua,
-                   tipo_construcao, bairro_risco, proximo_corrego, 
+                   tipo_construcao, bairro_risco, proximo_corrego,
                    created_at, updated_at, deleted_at
-            FROM gs_endereco 
+            FROM gs_endereco
             WHERE deleted_at IS NULL
-            ORDER BY id
-            """;
+            """ + KeysetPagination.clause(page, "");
 
         List<Endereco> enderecos = new ArrayList<>();
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            KeysetPagination.bind(stmt, 1, page);
 
-            while (rs.next()) {
-                enderecos.add(mapResultSetToEndereco(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    enderecos.add(mapResultSetToEndereco(rs));
+                }
             }
 
             return enderecos;
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao buscar todos os endereços", e);
+            throw new RuntimeException("Erro ao buscar endereços", e);
         }
     }
 
+    public StreamingQuery<Endereco> streamAll() {
+        String sql = """
+            SELECT id, logradouro, bairro, cep, tipo_solo, altitude_rua,
+                   tipo_construcao, bairro_risco, proximo_corrego,
+                   created_at, updated_at, deleted_at
+            FROM gs_endereco
+            WHERE deleted_at IS NULL
+            ORDER BY id
+            """;
+
+        try {
+            return StreamingQuery.abrir(dataSource, sql, exportFetchSize, this::mapResultSetToEndereco);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao exportar endereços", e);
+        }
+    }
+
+    // Edição direta: endereço com chave é compartilhado pelos relatos e não é alterado por aqui.
     public Endereco update(Endereco endereco) {
+        return atualizar(endereco, false);
+    }
+
+    // Edição do endereço de um usuário: se a linha é compartilhada, o usuário recebe uma cópia sem chave
+    // com os novos dados e quem chama aponta o usuário para o novo id.
+    public Endereco updateOrCopy(Endereco endereco) {
+        return atualizar(endereco, true);
+    }
+
+    private Endereco atualizar(Endereco endereco, boolean copiarSeCompartilhado) {
         String sql = """
             UPDATE gs_endereco
             SET logradouro = ?, bairro = ?, cep = ?, tipo_solo = ?,
                 altitude_rua = ?, tipo_construcao = ?, bairro_risco = ?, 
-                proximo_corrego = ?, updated_at = ?
+                proximo_corrego = ?, bairro_id = ?, updated_at = ?
             WHERE id = ? AND deleted_at IS NULL
             """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Integer bairroId = bairroRepository.resolverId(endereco.getBairro());
+        List<Integer> moradores;
 
-            endereco.setUpdatedAt(LocalDateTime.now());
-
-            stmt.setString(1, endereco.getLogradouro());
-            stmt.setString(2, endereco.getBairro());
-            stmt.setString(3, endereco.getCep());
-            stmt.setString(4, endereco.getTipoSolo() != null ? endereco.getTipoSolo().getValor() : null);
-            stmt.setString(5, endereco.getAltitudeRua() != null ? endereco.getAltitudeRua().getValor() : null);
-            stmt.setString(6, endereco.getTipoConstrucao() != null ? endereco.getTipoConstrucao().getValor() : null);
-            stmt.setString(7, endereco.getBairroRisco() != null ? endereco.getBairroRisco().getValor() : null);
-            stmt.setInt(8, endereco.getProximoCorrego() != null && endereco.getProximoCorrego() ? 1 : 0);
-            stmt.setTimestamp(9, Timestamp.valueOf(endereco.getUpdatedAt()));
-            stmt.setInt(10, endereco.getId());
-
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            Optional<Atual> atual = buscarAtual(conn, endereco.getId());
+            if (atual.isEmpty()) {
                 throw new RuntimeException("Endereço não encontrado para atualização");
             }
 
-            return endereco;
+            // Editar no lugar um endereço com chave moveria os eventos de todos os relatos que o usam.
+            if (!atual.get().chave().isEmpty()) {
+                if (!copiarSeCompartilhado) {
+                    throw new RuntimeException("Endereço compartilhado por relatos não pode ser editado diretamente");
+                }
+                try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, INSERT_SQL)) {
+                    bindInsert(stmt, endereco, bairroId, null);
+                    endereco.setId(GeneratedKeys.executeInsert(stmt));
+                }
+                conn.commit();
+                return endereco;
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                endereco.setUpdatedAt(LocalDateTime.now());
+
+                stmt.setString(1, endereco.getLogradouro());
+                stmt.setString(2, endereco.getBairro());
+                stmt.setString(3, endereco.getCep());
+                stmt.setString(4, endereco.getTipoSolo() != null ? endereco.getTipoSolo().getValor() : null);
+                stmt.setString(5, endereco.getAltitudeRua() != null ? endereco.getAltitudeRua().getValor() : null);
+                stmt.setString(6, endereco.getTipoConstrucao() != null ? endereco.getTipoConstrucao().getValor() : null);
+                stmt.setString(7, endereco.getBairroRisco() != null ? endereco.getBairroRisco().getValor() : null);
+                stmt.setInt(8, endereco.getProximoCorrego() != null && endereco.getProximoCorrego() ? 1 : 0);
+                bindBairroId(stmt, 9, bairroId);
+                stmt.setTimestamp(10, Timestamp.valueOf(endereco.getUpdatedAt()));
+                stmt.setInt(11, endereco.getId());
+
+                int rowsAffected = stmt.executeUpdate();
+                if (rowsAffected == 0) {
+                    throw new RuntimeException("Endereço não encontrado para atualização");
+                }
+            }
+
+            eventoMensalBairroRepository.moverEndereco(conn, endereco.getId(), atual.get().bairroId(),
+                    bairroId != null ? bairroId : EventoMensalBairroRepository.BAIRRO_NAO_INFORMADO);
+
+            moradores = buscarMoradores(conn, endereco.getId());
+            conn.commit();
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao atualizar endereço", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
+        }
+
+        // O bairro dos moradores pode ter mudado: os índices por usuário se atualizam pelo evento.
+        moradores.forEach(usuarioId -> usuarioAlterado.fire(new UsuarioAlterado(usuarioId)));
+        return endereco;
+    }
+
+    private List<Integer> buscarMoradores(Connection conn, Integer enderecoId) throws SQLException {
+        String sql = "SELECT id FROM gs_usuario WHERE endereco_id = ? AND deleted_at IS NULL";
+
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, enderecoId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Chave vazia se o endereço existe sem chave; bairro nulo conta como não informado, como no consolidado mensal.
+    private record Atual(String chave, int bairroId) {
+    }
+
+    // FOR UPDATE: duas edições concorrentes não descontam os eventos do mesmo bairro anterior.
+    private Optional<Atual> buscarAtual(Connection conn, Integer id) throws SQLException {
+        String sql = "SELECT chave_normalizada, bairro_id FROM gs_endereco WHERE id = ? AND deleted_at IS NULL FOR UPDATE";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                String chave = rs.getString("chave_normalizada");
+                int bairroId = rs.getInt("bairro_id");
+                if (rs.wasNull()) {
+                    bairroId = EventoMensalBairroRepository.BAIRRO_NAO_INFORMADO;
+                }
+                return Optional.of(new Atual(chave != null ? chave : "", bairroId));
+            }
         }
     }
 
@@ -155,31 +422,50 @@ public class EnderecoRepository {
             WHERE id = ? AND deleted_at IS NULL
             """;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        List<Integer> moradores;
 
-            LocalDateTime now = LocalDateTime.now();
-            stmt.setTimestamp(1, Timestamp.valueOf(now));
-            stmt.setTimestamp(2, Timestamp.valueOf(now));
-            stmt.setInt(3, id);
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                LocalDateTime now = LocalDateTime.now();
+                stmt.setTimestamp(1, Timestamp.valueOf(now));
+                stmt.setTimestamp(2, Timestamp.valueOf(now));
+                stmt.setInt(3, id);
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new RuntimeException("Endereço não encontrado para exclusão");
+                int rowsAffected = stmt.executeUpdate();
+                if (rowsAffected == 0) {
+                    throw new RuntimeException("Endereço não encontrado para exclusão");
+                }
             }
+
+            chaveCache.removerId(id);
+            moradores = buscarMoradores(conn, id);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao excluir endereço", e);
         }
+
+        moradores.forEach(usuarioId -> usuarioAlterado.fire(new UsuarioAlterado(usuarioId)));
     }
 
     private Endereco mapResultSetToEndereco(ResultSet rs) throws SQLException {
+        return mapResultSetToEndereco(rs, "");
+    }
+
+    static Endereco mapJoinedEndereco(ResultSet rs) throws SQLException {
+        rs.getInt("e_id");
+        if (rs.wasNull()) {
+            return null;
+        }
+        return mapResultSetToEndereco(rs, "e_");
+    }
+
+    private static Endereco mapResultSetToEndereco(ResultSet rs, String prefix) throws SQLException {
         Endereco endereco = new Endereco();
-        endereco.setId(rs.getInt("id"));
-        endereco.setLogradouro(rs.getString("logradouro"));
-        endereco.setBairro(rs.getString("bairro"));
-        endereco.setCep(rs.getString("cep"));
+        endereco.setId(rs.getInt(prefix + "id"));
+        endereco.setLogradouro(rs.getString(prefix + "logradouro"));
+        endereco.setBairro(rs.getString(prefix + "bairro"));
+        endereco.setCep(rs.getString(prefix + "cep"));
 
-        String tipoSolo = rs.getString("tipo_solo");
+        String tipoSolo = rs.getString(prefix + "tipo_solo");
         if (tipoSolo != null) {
             switch (tipoSolo.toLowerCase()) {
                 case "vegetacao", "vegetação" -> endereco.setTipoSolo(TipoSolo.VEGETACAO);
@@ -188,7 +474,7 @@ public class EnderecoRepository {
             }
         }
 
-        String altitudeRua = rs.getString("altitude_rua");
+        String altitudeRua = rs.getString(prefix + "altitude_rua");
         if (altitudeRua != null) {
             switch (altitudeRua.toLowerCase()) {
                 case "nivel", "nível" -> endereco.setAltitudeRua(AltitudeRua.NIVEL);
@@ -197,7 +483,7 @@ public class EnderecoRepository {
             }
         }
 
-        String tipoConstrucao = rs.getString("tipo_construcao");
+        String tipoConstrucao = rs.getString(prefix + "tipo_construcao");
         if (tipoConstrucao != null) {
             switch (tipoConstrucao.toLowerCase()) {
                 case "madeira" -> endereco.setTipoConstrucao(TipoConstrucao.MADEIRA);
@@ -206,28 +492,21 @@ public class EnderecoRepository {
             }
         }
 
-        String bairroRisco = rs.getString("bairro_risco");
-        if (bairroRisco != null) {
-            switch (bairroRisco.toLowerCase()) {
-                case "baixo" -> endereco.setBairroRisco(TipoRisco.BAIXO);
-                case "medio", "médio" -> endereco.setBairroRisco(TipoRisco.MEDIO);
-                case "alto" -> endereco.setBairroRisco(TipoRisco.ALTO);
-            }
-        }
+        endereco.setBairroRisco(Colunas.tipoRisco(rs.getString(prefix + "bairro_risco")));
 
-        endereco.setProximoCorrego(rs.getInt("proximo_corrego") == 1);
+        endereco.setProximoCorrego(rs.getInt(prefix + "proximo_corrego") == 1);
 
-        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp createdAt = rs.getTimestamp(prefix + "created_at");
         if (createdAt != null) {
             endereco.setCreatedAt(createdAt.toLocalDateTime());
         }
 
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        Timestamp updatedAt = rs.getTimestamp(prefix + "updated_at");
         if (updatedAt != null) {
             endereco.setUpdatedAt(updatedAt.toLocalDateTime());
         }
 
-        Timestamp deletedAt = rs.getTimestamp("deleted_at");
+        Timestamp deletedAt = rs.getTimestamp(prefix + "deleted_at");
         if (deletedAt != null) {
             endereco.setDeletedAt(deletedAt.toLocalDateTime());
         }
@@ -0,0 +1,228 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.metrics.QueryMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@QueryMetrics
+@ApplicationScoped
+public class EventoMensalBairroRepository {
+
+    static final String TIPO_ALAGAMENTO = "A";
+    static final String TIPO_DESLIZAMENTO = "D";
+    static final int BAIRRO_NAO_INFORMADO = 0;
+
+    record ChaveMensal(String periodo, Integer enderecoId) {
+    }
+
+    private static final String AJUSTE_SQL = """
+        MERGE INTO gs_evento_mensal_bairro r
+        USING (
+            SELECT ? AS periodo,
+                   NVL(MAX(e.bairro_id), ?) AS bairro_id,
+                   ? AS tipo_evento,
+                   ? AS delta
+            FROM gs_endereco e
+            WHERE e.id = ? AND e.deleted_at IS NULL
+        ) s
+        ON (r.periodo = s.periodo AND r.bairro_id = s.bairro_id AND r.tipo_evento = s.tipo_evento)
+        WHEN MATCHED THEN UPDATE
+            SET r.total = GREATEST(r.total + s.delta, 0),
+                r.updated_at = CURRENT_TIMESTAMP
+        WHEN NOT MATCHED THEN INSERT (periodo, bairro_id, tipo_evento, total, updated_at)
+            VALUES (s.periodo, s.bairro_id, s.tipo_evento, GREATEST(s.delta, 0), CURRENT_TIMESTAMP)
+        """;
+
+    // Soma (ou subtrai) num bairro os eventos de um endereço, agrupados por período e tipo.
+    private static final String MOVER_SQL = """
+        MERGE INTO gs_evento_mensal_bairro r
+        USING (
+            SELECT TO_CHAR(ev.data_ocorrencia, 'YYYY-MM') AS periodo,
+                   ? AS bairro_id,
+                   ev.tipo_evento,
+                   ? * COUNT(*) AS delta
+            FROM (
+                SELECT data_ocorrencia, '%1$s' AS tipo_evento FROM gs_alagamento
+                WHERE endereco_id = ? AND deleted_at IS NULL AND data_ocorrencia IS NOT NULL
+                UNION ALL
+                SELECT data_ocorrencia, '%2$s' AS tipo_evento FROM gs_deslizamento
+                WHERE endereco_id = ? AND deleted_at IS NULL AND data_ocorrencia IS NOT NULL
+            ) ev
+            GROUP BY TO_CHAR(ev.data_ocorrencia, 'YYYY-MM'), ev.tipo_evento
+        ) s
+        ON (r.periodo = s.periodo AND r.bairro_id = s.bairro_id AND r.tipo_evento = s.tipo_evento)
+        WHEN MATCHED THEN UPDATE
+            SET r.total = GREATEST(r.total + s.delta, 0),
+                r.updated_at = CURRENT_TIMESTAMP
+        WHEN NOT MATCHED THEN INSERT (periodo, bairro_id, tipo_evento, total, updated_at)
+            VALUES (s.periodo, s.bairro_id, s.tipo_evento, GREATEST(s.delta, 0), CURRENT_TIMESTAMP)
+        """.formatted(TIPO_ALAGAMENTO, TIPO_DESLIZAMENTO);
+
+    @Inject
+    DataSource dataSource;
+
+    static String periodoDe(LocalDateTime dataOcorrencia) {
+        return dataOcorrencia != null ? YearMonth.from(dataOcorrencia).toString() : null;
+    }
+
+    void ajustarTotal(Connection conn, String tipoEvento, Integer enderecoId, String periodo, int delta) throws SQLException {
+        if (periodo == null || delta == 0) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(AJUSTE_SQL)) {
+            bindAjuste(stmt, tipoEvento, enderecoId, periodo, delta);
+            try {
+                stmt.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Primeiro evento concorrente do mesmo (periodo, bairro, tipo) inseriu antes e já commitou:
+                // repetido, o MERGE encontra a linha e só soma o delta.
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    void ajustarTotais(Connection conn, String tipoEvento, Map<ChaveMensal, Integer> deltas) throws SQLException {
+        List<Map.Entry<ChaveMensal, Integer>> ajustes = new ArrayList<>();
+        for (Map.Entry<ChaveMensal, Integer> entry : deltas.entrySet()) {
+            if (entry.getKey().periodo() != null && entry.getValue() != 0) {
+                ajustes.add(entry);
+            }
+        }
+        if (ajustes.isEmpty()) {
+            return;
+        }
+
+        // O bairro vem do endereço gravado, como em ajustarTotal, e não da grafia recebida no relato.
+        try (PreparedStatement stmt = conn.prepareStatement(AJUSTE_SQL)) {
+            for (Map.Entry<ChaveMensal, Integer> entry : ajustes) {
+                bindAjuste(stmt, tipoEvento, entry.getKey().enderecoId(), entry.getKey().periodo(), entry.getValue());
+                stmt.addBatch();
+            }
+
+            try {
+                stmt.executeBatch();
+            } catch (BatchUpdateException e) {
+                if (!violacaoDeChave(e)) {
+                    throw e;
+                }
+
+                // O lote para na linha que falhou; as anteriores já valem nesta transação.
+                for (int i = e.getUpdateCounts().length; i < ajustes.size(); i++) {
+                    Map.Entry<ChaveMensal, Integer> entry = ajustes.get(i);
+                    ajustarTotal(conn, tipoEvento, entry.getKey().enderecoId(), entry.getKey().periodo(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    // O consolidado é por bairro do endereço: quando o endereço muda de bairro, os eventos dele mudam junto.
+    void moverEndereco(Connection conn, Integer enderecoId, int bairroAnterior, int bairroNovo) throws SQLException {
+        if (bairroAnterior == bairroNovo) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(MOVER_SQL)) {
+            bindMover(stmt, enderecoId, bairroAnterior, -1);
+            stmt.executeUpdate();
+
+            bindMover(stmt, enderecoId, bairroNovo, 1);
+            try {
+                stmt.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static void bindMover(PreparedStatement stmt, Integer enderecoId, int bairroId, int sinal) throws SQLException {
+        stmt.setInt(1, bairroId);
+        stmt.setInt(2, sinal);
+        stmt.setInt(3, enderecoId);
+        stmt.setInt(4, enderecoId);
+    }
+
+    private static boolean violacaoDeChave(SQLException e) {
+        return e.getErrorCode() == 1 || e.getCause() instanceof SQLIntegrityConstraintViolationException;
+    }
+
+    private static void bindAjuste(PreparedStatement stmt, String tipoEvento, Integer enderecoId, String periodo, int delta) throws SQLException {
+        stmt.setString(1, periodo);
+        stmt.setInt(2, BAIRRO_NAO_INFORMADO);
+        stmt.setString(3, tipoEvento);
+        stmt.setInt(4, delta);
+        if (enderecoId != null) {
+            stmt.setInt(5, enderecoId);
+        } else {
+            stmt.setNull(5, Types.INTEGER);
+        }
+    }
+
+    public int reconstruir() {
+        String deleteSql = "DELETE FROM gs_evento_mensal_bairro";
+
+        String insertSql = """
+            INSERT INTO gs_evento_mensal_bairro (periodo, bairro_id, tipo_evento, total, updated_at)
+            SELECT TO_CHAR(ev.data_ocorrencia, 'YYYY-MM'),
+                   NVL(e.bairro_id, %1$d),
+                   ev.tipo_evento,
+                   COUNT(*),
+                   CURRENT_TIMESTAMP
+            FROM (
+                SELECT endereco_id, data_ocorrencia, '%2$s' AS tipo_evento FROM gs_alagamento
+                WHERE deleted_at IS NULL AND data_ocorrencia IS NOT NULL
+                UNION ALL
+                SELECT endereco_id, data_ocorrencia, '%3$s' AS tipo_evento FROM gs_deslizamento
+                WHERE deleted_at IS NULL AND data_ocorrencia IS NOT NULL
+            ) ev
+            LEFT JOIN gs_endereco e ON e.id = ev.endereco_id AND e.deleted_at IS NULL
+            GROUP BY TO_CHAR(ev.data_ocorrencia, 'YYYY-MM'), NVL(e.bairro_id, %1$d), ev.tipo_evento
+            """.formatted(BAIRRO_NAO_INFORMADO, TIPO_ALAGAMENTO, TIPO_DESLIZAMENTO);
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            // Bloqueia as escritas incrementais enquanto a tabela é refeita; elas aplicam o delta depois do commit.
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("LOCK TABLE gs_evento_mensal_bairro IN EXCLUSIVE MODE");
+                stmt.executeUpdate(deleteSql);
+            }
+
+            int linhas;
+            try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+                linhas = stmt.executeUpdate();
+            }
+
+            conn.commit();
+            return linhas;
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
+            throw new RuntimeException("Erro ao reconstruir consolidado mensal por bairro: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.climaticrisks.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+final class GeneratedKeys {
+
+    private static final String[] ID_COLUMN = {"ID"};
+
+    private GeneratedKeys() {
+    }
+
+    static PreparedStatement prepareInsert(Connection conn, String sql) throws SQLException {
+        return conn.prepareStatement(sql, ID_COLUMN);
+    }
+
+    static Integer executeInsert(PreparedStatement stmt) throws SQLException {
+        if (stmt.executeUpdate() == 0) {
+            return null;
+        }
+
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            if (!rs.next()) {
+                throw new SQLException("Nenhum ID foi retornado pelo INSERT");
+            }
+            return readId(rs);
+        }
+    }
+
+    static List<Integer> executeBatch(PreparedStatement stmt, int linhas) throws SQLException {
+        stmt.executeBatch();
+
+        List<Integer> ids = new ArrayList<>(linhas);
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            while (rs.next()) {
+                ids.add(readId(rs));
+            }
+        }
+
+        if (ids.size() != linhas) {
+            throw new SQLException("INSERT em lote retornou " + ids.size() + " IDs para " + linhas + " linhas");
+        }
+        return ids;
+    }
+
+    private static Integer readId(ResultSet rs) throws SQLException {
+        try {
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            String idStr = rs.getString(1);
+            if (idStr != null && idStr.matches("\\d+")) {
+                return Integer.parseInt(idStr);
+            }
+            throw new SQLException("ID gerado não é válido: " + idStr, e);
+        }
+    }
+}
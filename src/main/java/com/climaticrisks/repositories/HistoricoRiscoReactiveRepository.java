@@ -0,0 +1,55 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.models.HistoricoRisco;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+
+@ApplicationScoped
+public class HistoricoRiscoReactiveRepository {
+
+    @Inject
+    LeituraReativa leitura;
+
+    @Inject
+    HistoricoRiscoRepository historicoRepository;
+
+    public Uni<Optional<HistoricoRisco>> findByEnderecoId(Integer enderecoId) {
+        String sql = """
+            SELECT id, endereco_id, nivel_risco, total_eventos,
+                   created_at, updated_at, deleted_at
+            FROM gs_historico_risco 
+            WHERE endereco_id = ? AND deleted_at IS NULL
+            ORDER BY updated_at DESC
+            FETCH FIRST 1 ROWS ONLY
+            """;
+
+        return leitura.executar(
+                pool -> pool.preparedQuery(sql)
+                        .execute(Tuple.of(enderecoId))
+                        .map(rows -> {
+                            RowIterator<Row> iterator = rows.iterator();
+                            return iterator.hasNext() ? Optional.of(mapRowToHistorico(iterator.next())) : Optional.empty();
+                        }),
+                () -> historicoRepository.findByEnderecoId(enderecoId));
+    }
+
+    private HistoricoRisco mapRowToHistorico(Row row) {
+        HistoricoRisco historico = new HistoricoRisco();
+        historico.setId(row.getInteger("id"));
+        historico.setEnderecoId(row.getInteger("endereco_id"));
+        historico.setTotalEventos(LeituraReativa.inteiro(row, "total_eventos"));
+        historico.setNivelRisco(Colunas.tipoRisco(row.getString("nivel_risco")));
+
+        historico.setCreatedAt(row.getLocalDateTime("created_at"));
+        historico.setUpdatedAt(row.getLocalDateTime("updated_at"));
+        historico.setDeletedAt(row.getLocalDateTime("deleted_at"));
+
+        return historico;
+    }
+}
@@ -1,18 +1,26 @@
 package com.climaticrisks.repositories;
 
 import com.climaticrisks.models.HistoricoRisco;
+import com.climaticrisks.requests.PageRequest;
 import com.climaticrisks.enums.TipoRisco;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+@QueryMetrics
 @ApplicationScoped
 public class HistoricoRiscoRepository {
 
+    private static final int LIMITE_RISCO_ALTO = 5;
+    private static final int LIMITE_RISCO_MEDIO = 2;
+
     @Inject
     DataSource dataSource;
 
@@ -23,31 +31,13 @@ public class HistoricoRiscoRepository {
             """;
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
 
             stmt.setInt(1, historico.getEnderecoId());
             stmt.setString(2, historico.getNivelRisco() != null ? historico.getNivelRisco().getValor() : "baixo");
             stmt.setInt(3, historico.getTotalEventos() != null ? historico.getTotalEventos() : 0);
 
-            int rowsAffected = stmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                String selectSql = """
-                    SELECT id FROM gs_historico_risco 
-                    WHERE endereco_id = ? AND created_at = (SELECT MAX(created_at) FROM gs_historico_risco WHERE endereco_id = ?)
-                    """;
-
-                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                    selectStmt.setInt(1, historico.getEnderecoId());
-                    selectStmt.setInt(2, historico.getEnderecoId());
-
-                    try (ResultSet rs = selectStmt.executeQuery()) {
-                        if (rs.next()) {
-                            historico.setId(rs.getInt("id"));
-                        }
-                    }
-                }
-            }
+            historico.setId(GeneratedKeys.executeInsert(stmt));
 
             return historico;
 
@@ -108,28 +98,30 @@ public class HistoricoRiscoRepository {
         }
     }
 
-    public List<HistoricoRisco> findAll() {
+    public List<HistoricoRisco> findPage(PageRequest page) {
         String sql = """
             SELECT id, endereco_id, nivel_risco, total_eventos,
                    created_at, updated_at, deleted_at
-            FROM gs_historico_risco 
+            FROM gs_historico_risco
             WHERE deleted_at IS NULL
-            ORDER BY total_eventos DESC, updated_at DESC
-            """;
+            """ + KeysetPagination.clause(page, "");
 
         List<HistoricoRisco> historicos = new ArrayList<>();
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                historicos.add(mapResultSetToHistorico(rs));
+            KeysetPagination.bind(stmt, 1, page);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    historicos.add(mapResultSetToHistorico(rs));
+                }
             }
 
             return historicos;
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao buscar todos os históricos", e);
+            throw new RuntimeException("Erro ao buscar históricos", e);
         }
     }
 
@@ -209,80 +201,169 @@ public class HistoricoRiscoRepository {
 
     public void atualizarHistoricoRisco(Integer enderecoId) {
         try (Connection conn = dataSource.getConnection()) {
-            String countSql = """
-                SELECT 
-                    (SELECT COUNT(*) FROM gs_alagamento WHERE endereco_id = ? AND deleted_at IS NULL) +
-                    (SELECT COUNT(*) FROM gs_deslizamento WHERE endereco_id = ? AND deleted_at IS NULL) as total_eventos
-                FROM DUAL
-                """;
-
-            int totalEventos = 0;
-            try (PreparedStatement countStmt = conn.prepareStatement(countSql)) {
-                countStmt.setInt(1, enderecoId);
-                countStmt.setInt(2, enderecoId);
-
-                try (ResultSet rs = countStmt.executeQuery()) {
-                    if (rs.next()) {
-                        totalEventos = rs.getInt("total_eventos");
-                    }
-                }
-            }
-
-            TipoRisco nivelRisco = calcularNivelRisco(totalEventos);
-
-            Optional<HistoricoRisco> historicoExistente = findByEnderecoId(enderecoId);
-
-            if (historicoExistente.isPresent()) {
-                HistoricoRisco historico = historicoExistente.get();
-                historico.setTotalEventos(totalEventos);
-                historico.setNivelRisco(nivelRisco);
-                update(historico);
-            } else {
-                HistoricoRisco novoHistorico = new HistoricoRisco();
-                novoHistorico.setEnderecoId(enderecoId);
-                novoHistorico.setTotalEventos(totalEventos);
-                novoHistorico.setNivelRisco(nivelRisco);
-                save(novoHistorico);
+            try {
+                recontarEventos(conn, enderecoId);
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Outro evento criou o histórico entre o MERGE e o INSERT; agora o MERGE cai no UPDATE.
+                recontarEventos(conn, enderecoId);
             }
-
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao atualizar histórico de risco: " + e.getMessage(), e);
         }
     }
 
-    private TipoRisco calcularNivelRisco(int totalEventos) {
-        if (totalEventos >= 5) {
-            return TipoRisco.ALTO;
-        } else if (totalEventos >= 2) {
-            return TipoRisco.MEDIO;
-        } else {
-            return TipoRisco.BAIXO;
+    void ajustarTotalEventos(Connection conn, Integer enderecoId, int delta) throws SQLException {
+        if (somarTotalEventos(conn, enderecoId, delta) > 0) {
+            return;
+        }
+
+        // Endereço ainda sem histórico: a contagem inicial precisa incluir eventos anteriores.
+        try {
+            recontarEventos(conn, enderecoId);
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // Primeiro evento concorrente no mesmo endereço (ux_historico_risco_endereco): a linha do outro
+            // não enxerga este evento, então ele é somado sobre ela.
+            if (somarTotalEventos(conn, enderecoId, delta) == 0) {
+                throw e;
+            }
         }
     }
 
-    public void recalcularTodosHistoricos() {
+    private int somarTotalEventos(Connection conn, Integer enderecoId, int delta) throws SQLException {
         String sql = """
-            SELECT DISTINCT endereco_id 
-            FROM (
-                SELECT endereco_id FROM gs_alagamento WHERE deleted_at IS NULL
-                UNION
-                SELECT endereco_id FROM gs_deslizamento WHERE deleted_at IS NULL
-            )
-            """;
+            UPDATE gs_historico_risco
+            SET total_eventos = GREATEST(total_eventos + ?, 0),
+                nivel_risco = %s,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE endereco_id = ? AND deleted_at IS NULL
+            """.formatted(nivelRiscoCase("total_eventos + ?"));
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, delta);
+            int index = bindNivelRisco(stmt, 2, delta);
+            stmt.setInt(index, enderecoId);
 
-            List<Integer> enderecoIds = new ArrayList<>();
-            while (rs.next()) {
-                enderecoIds.add(rs.getInt("endereco_id"));
+            return stmt.executeUpdate();
+        }
+    }
+
+    void registrarEventosLote(Connection conn, Map<Integer, Integer> eventosPorEndereco, Set<Integer> enderecosNovos) throws SQLException {
+        // Endereços criados no mesmo lote do evento: não há eventos anteriores a recontar.
+        String sql = """
+            INSERT INTO gs_historico_risco (endereco_id, nivel_risco, total_eventos, created_at, updated_at)
+            VALUES (?, %s, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """.formatted(nivelRiscoCase("?"));
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            boolean pendente = false;
+            for (Map.Entry<Integer, Integer> entry : eventosPorEndereco.entrySet()) {
+                if (!enderecosNovos.contains(entry.getKey())) {
+                    continue;
+                }
+
+                stmt.setInt(1, entry.getKey());
+                int index = bindNivelRisco(stmt, 2, entry.getValue());
+                stmt.setInt(index, entry.getValue());
+                stmt.addBatch();
+                pendente = true;
             }
 
-            for (Integer enderecoId : enderecoIds) {
-                atualizarHistoricoRisco(enderecoId);
+            if (pendente) {
+                stmt.executeBatch();
             }
+        }
+
+        // Endereços já existentes acumulam sobre o histórico atual.
+        for (Map.Entry<Integer, Integer> entry : eventosPorEndereco.entrySet()) {
+            if (!enderecosNovos.contains(entry.getKey())) {
+                ajustarTotalEventos(conn, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void recontarEventos(Connection conn, Integer enderecoId) throws SQLException {
+        String sql = """
+            MERGE INTO gs_historico_risco h
+            USING (
+                SELECT t.endereco_id, t.total_eventos, %s AS nivel_risco
+                FROM (
+                    SELECT ? AS endereco_id,
+                           (SELECT COUNT(*) FROM gs_alagamento WHERE endereco_id = ? AND deleted_at IS NULL) +
+                           (SELECT COUNT(*) FROM gs_deslizamento WHERE endereco_id = ? AND deleted_at IS NULL) AS total_eventos
+                    FROM DUAL
+                ) t
+            ) s
+            ON (h.endereco_id = s.endereco_id AND h.deleted_at IS NULL)
+            WHEN MATCHED THEN UPDATE
+                SET h.total_eventos = s.total_eventos,
+                    h.nivel_risco = s.nivel_risco,
+                    h.updated_at = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN INSERT (endereco_id, nivel_risco, total_eventos, created_at, updated_at)
+                VALUES (s.endereco_id, s.nivel_risco, s.total_eventos, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """.formatted(nivelRiscoCase("t.total_eventos"));
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = bindNivelRisco(stmt, 1, null);
+            stmt.setInt(index++, enderecoId);
+            stmt.setInt(index++, enderecoId);
+            stmt.setInt(index, enderecoId);
+
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String nivelRiscoCase(String totalEventos) {
+        return "CASE WHEN " + totalEventos + " >= ? THEN ? WHEN " + totalEventos + " >= ? THEN ? ELSE ? END";
+    }
 
+    private static int bindNivelRisco(PreparedStatement stmt, int index, Integer delta) throws SQLException {
+        if (delta != null) {
+            stmt.setInt(index++, delta);
+        }
+        stmt.setInt(index++, LIMITE_RISCO_ALTO);
+        stmt.setString(index++, TipoRisco.ALTO.getValor());
+        if (delta != null) {
+            stmt.setInt(index++, delta);
+        }
+        stmt.setInt(index++, LIMITE_RISCO_MEDIO);
+        stmt.setString(index++, TipoRisco.MEDIO.getValor());
+        stmt.setString(index++, TipoRisco.BAIXO.getValor());
+        return index;
+    }
+
+    public int recalcularTodosHistoricos() {
+        String sql = """
+            MERGE INTO gs_historico_risco h
+            USING (
+                SELECT t.endereco_id, t.total_eventos, %s AS nivel_risco
+                FROM (
+                    SELECT endereco_id, COUNT(*) AS total_eventos
+                    FROM (
+                        SELECT endereco_id FROM gs_alagamento WHERE deleted_at IS NULL
+                        UNION ALL
+                        SELECT endereco_id FROM gs_deslizamento WHERE deleted_at IS NULL
+                    )
+                    GROUP BY endereco_id
+                ) t
+            ) s
+            ON (h.endereco_id = s.endereco_id AND h.deleted_at IS NULL)
+            WHEN MATCHED THEN UPDATE
+                SET h.total_eventos = s.total_eventos,
+                    h.nivel_risco = s.nivel_risco,
+                    h.updated_at = CURRENT_TIMESTAMP
+                WHERE h.total_eventos <> s.total_eventos
+                   OR h.nivel_risco <> s.nivel_risco
+                   OR h.nivel_risco IS NULL
+            WHEN NOT MATCHED THEN INSERT (endereco_id, nivel_risco, total_eventos, created_at, updated_at)
+                VALUES (s.endereco_id, s.nivel_risco, s.total_eventos, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """.formatted(nivelRiscoCase("t.total_eventos"));
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindNivelRisco(stmt, 1, null);
+
+            return stmt.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao recalcular históricos", e);
         }
@@ -293,15 +374,7 @@ public class HistoricoRiscoRepository {
         historico.setId(rs.getInt("id"));
         historico.setEnderecoId(rs.getInt("endereco_id"));
         historico.setTotalEventos(rs.getInt("total_eventos"));
-
-        String nivelRisco = rs.getString("nivel_risco");
-        if (nivelRisco != null) {
-            switch (nivelRisco.toLowerCase()) {
-                case "baixo" -> historico.setNivelRisco(TipoRisco.BAIXO);
-                case "medio", "médio" -> historico.setNivelRisco(TipoRisco.MEDIO);
-                case "alto" -> historico.setNivelRisco(TipoRisco.ALTO);
-            }
-        }
+        historico.setNivelRisco(Colunas.tipoRisco(rs.getString("nivel_risco")));
 
         Timestamp createdAt = rs.getTimestamp("created_at");
         if (createdAt != null) {
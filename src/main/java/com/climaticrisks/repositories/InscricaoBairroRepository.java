@@ -0,0 +1,137 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.events.UsuarioAlterado;
+import com.climaticrisks.metrics.QueryMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+@QueryMetrics
+@ApplicationScoped
+public class InscricaoBairroRepository {
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    Event<UsuarioAlterado> usuarioAlterado;
+
+    @ConfigProperty(name = "climaticrisks.export.fetch-size", defaultValue = "500")
+    int exportFetchSize;
+
+    public void inscrever(Integer usuarioId, Integer bairroId) {
+        String sql = """
+            MERGE INTO gs_inscricao_bairro i
+            USING (SELECT ? AS usuario_id, ? AS bairro_id FROM DUAL) s
+            ON (i.usuario_id = s.usuario_id AND i.bairro_id = s.bairro_id)
+            WHEN NOT MATCHED THEN INSERT (usuario_id, bairro_id, created_at)
+                VALUES (s.usuario_id, s.bairro_id, CURRENT_TIMESTAMP)
+            """;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, bairroId);
+            stmt.executeUpdate();
+
+            usuarioAlterado.fire(new UsuarioAlterado(usuarioId));
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao inscrever usuário no bairro: " + e.getMessage(), e);
+        }
+    }
+
+    public boolean cancelar(Integer usuarioId, Integer bairroId) {
+        String sql = "DELETE FROM gs_inscricao_bairro WHERE usuario_id = ? AND bairro_id = ?";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, bairroId);
+
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+
+            usuarioAlterado.fire(new UsuarioAlterado(usuarioId));
+            return true;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao cancelar inscrição no bairro", e);
+        }
+    }
+
+    public List<String> findBairrosByUsuarioId(Integer usuarioId) {
+        String sql = """
+            SELECT b.nome
+            FROM gs_inscricao_bairro i
+            INNER JOIN gs_bairro b ON b.id = i.bairro_id
+            WHERE i.usuario_id = ?
+            ORDER BY b.nome
+            """;
+
+        List<String> bairros = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, usuarioId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bairros.add(rs.getString("nome"));
+                }
+            }
+
+            return bairros;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar inscrições do usuário", e);
+        }
+    }
+
+    List<Integer> findBairroIdsByUsuarioId(Connection conn, Integer usuarioId) throws SQLException {
+        String sql = """
+            SELECT i.bairro_id
+            FROM gs_inscricao_bairro i
+            INNER JOIN gs_usuario u ON u.id = i.usuario_id
+            WHERE i.usuario_id = ? AND u.deleted_at IS NULL
+            """;
+
+        List<Integer> bairroIds = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bairroIds.add(rs.getInt("bairro_id"));
+                }
+            }
+        }
+        return bairroIds;
+    }
+
+    void forEachInscricao(Connection conn, BiConsumer<Integer, Integer> consumer) throws SQLException {
+        String sql = """
+            SELECT i.usuario_id, i.bairro_id
+            FROM gs_inscricao_bairro i
+            INNER JOIN gs_usuario u ON u.id = i.usuario_id
+            WHERE u.deleted_at IS NULL
+            """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setFetchSize(exportFetchSize);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt("usuario_id"), rs.getInt("bairro_id"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.requests.PageRequest;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+final class KeysetPagination {
+
+    private KeysetPagination() {
+    }
+
+    static String clause(PageRequest page, String alias) {
+        String keyset = page.hasCursor()
+                ? "AND (" + alias + "created_at < ? OR (" + alias + "created_at = ? AND " + alias + "id < ?))\n"
+                : "";
+        return keyset
+                + "ORDER BY " + alias + "created_at DESC, " + alias + "id DESC\n"
+                + "FETCH FIRST ? ROWS ONLY\n";
+    }
+
+    static void bind(PreparedStatement stmt, int index, PageRequest page) throws SQLException {
+        if (page.hasCursor()) {
+            Timestamp createdAt = Timestamp.valueOf(page.getAfterCreatedAt());
+            stmt.setTimestamp(index++, createdAt);
+            stmt.setTimestamp(index++, createdAt);
+            stmt.setInt(index++, page.getAfterId());
+        }
+        stmt.setInt(index, page.getLimit() + 1);
+    }
+}
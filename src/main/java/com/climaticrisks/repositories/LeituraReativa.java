@@ -0,0 +1,56 @@
+package com.climaticrisks.repositories;
+
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Escolhe, por configuração, entre o cliente reativo do Vert.x e o repositório JDBC executado no worker pool.
+@ApplicationScoped
+class LeituraReativa {
+
+    @ConfigProperty(name = "climaticrisks.leitura.reativa", defaultValue = "false")
+    boolean habilitada;
+
+    @Inject
+    Instance<Pool> pool;
+
+    void validar(@Observes StartupEvent evento) {
+        if (habilitada) {
+            // Sem quarkus.datasource.reactive.url o pool fica inativo; melhor falhar na subida do que na primeira requisição.
+            pool.get();
+        }
+    }
+
+    <T> Uni<T> executar(Function<Pool, Uni<T>> reativa, Supplier<T> bloqueante) {
+        if (habilitada) {
+            return reativa.apply(pool.get());
+        }
+        return Uni.createFrom().item(bloqueante).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    static <T> List<T> listar(RowSet<Row> rows, Function<Row, T> mapper) {
+        List<T> resultado = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            resultado.add(mapper.apply(row));
+        }
+        return resultado;
+    }
+
+    static int inteiro(Row row, String coluna) {
+        Integer valor = row.getInteger(coluna);
+        return valor != null ? valor : 0;
+    }
+}
@@ -0,0 +1,220 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.events.UsuarioAlterado;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@ApplicationScoped
+public class MoradoresBairroIndex {
+
+    private static final RoaringBitmap VAZIO = new RoaringBitmap();
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    UsuarioRepository usuarioRepository;
+
+    @Inject
+    InscricaoBairroRepository inscricaoRepository;
+
+    // Bitmaps publicados nunca são alterados: as escritas trocam por uma cópia e as leituras dispensam o lock.
+    private volatile Map<Integer, RoaringBitmap> moradores = new ConcurrentHashMap<>();
+    private volatile Map<Integer, RoaringBitmap> inscritos = new ConcurrentHashMap<>();
+
+    // Alterados só sob o lock do índice.
+    private volatile Map<Integer, Integer> bairroDoUsuario = new ConcurrentHashMap<>();
+    private volatile Map<Integer, Set<Integer>> inscricoesDoUsuario = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile boolean carregado;
+
+    void carregarNaSubida(@Observes StartupEvent evento) {
+        try {
+            carregar();
+        } catch (RuntimeException e) {
+            // Banco indisponível na subida: a carga é refeita no primeiro uso.
+        }
+    }
+
+    public void carregar() {
+        lock.lock();
+        try {
+            Map<Integer, RoaringBitmap> novosMoradores = new HashMap<>();
+            Map<Integer, RoaringBitmap> novosInscritos = new HashMap<>();
+            Map<Integer, Integer> novosBairros = new HashMap<>();
+            Map<Integer, Set<Integer>> novasInscricoes = new HashMap<>();
+
+            try (Connection conn = dataSource.getConnection()) {
+                usuarioRepository.forEachMorador(conn, (usuarioId, bairroId) -> {
+                    novosMoradores.computeIfAbsent(bairroId, k -> new RoaringBitmap()).add(usuarioId);
+                    novosBairros.put(usuarioId, bairroId);
+                });
+
+                inscricaoRepository.forEachInscricao(conn, (usuarioId, bairroId) -> {
+                    novosInscritos.computeIfAbsent(bairroId, k -> new RoaringBitmap()).add(usuarioId);
+                    novasInscricoes.computeIfAbsent(usuarioId, k -> new HashSet<>()).add(bairroId);
+                });
+            } catch (SQLException e) {
+                carregado = false;
+                throw new RuntimeException("Erro ao carregar índice de moradores por bairro: " + e.getMessage(), e);
+            }
+
+            novosMoradores.values().forEach(RoaringBitmap::runOptimize);
+            novosInscritos.values().forEach(RoaringBitmap::runOptimize);
+
+            moradores = new ConcurrentHashMap<>(novosMoradores);
+            inscritos = new ConcurrentHashMap<>(novosInscritos);
+            bairroDoUsuario = new ConcurrentHashMap<>(novosBairros);
+            Map<Integer, Set<Integer>> inscricoesPublicadas = new ConcurrentHashMap<>();
+            novasInscricoes.forEach((usuarioId, bairroIds) -> inscricoesPublicadas.put(usuarioId, Set.copyOf(bairroIds)));
+            inscricoesDoUsuario = inscricoesPublicadas;
+            carregado = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RoaringBitmap destinatarios(Collection<Integer> bairroIds) {
+        garantirCarregado();
+
+        Map<Integer, RoaringBitmap> moradoresAtual = moradores;
+        Map<Integer, RoaringBitmap> inscritosAtual = inscritos;
+
+        List<RoaringBitmap> bitmaps = new ArrayList<>(bairroIds.size() * 2);
+        for (Integer bairroId : bairroIds) {
+            bitmaps.add(moradoresAtual.getOrDefault(bairroId, VAZIO));
+            bitmaps.add(inscritosAtual.getOrDefault(bairroId, VAZIO));
+        }
+
+        return bitmaps.isEmpty() ? new RoaringBitmap() : FastAggregation.or(bitmaps.iterator());
+    }
+
+    public int alcance(Collection<Integer> bairroIds) {
+        return destinatarios(bairroIds).getCardinality();
+    }
+
+    public Set<Integer> bairrosDoUsuario(Integer usuarioId) {
+        garantirCarregado();
+
+        Set<Integer> bairros = new HashSet<>(inscricoesDoUsuario.getOrDefault(usuarioId, Set.of()));
+        Integer bairroId = bairroDoUsuario.get(usuarioId);
+        if (bairroId != null) {
+            bairros.add(bairroId);
+        }
+        return bairros;
+    }
+
+    void onUsuarioAlterado(@Observes UsuarioAlterado evento) {
+        if (!carregado) {
+            return;
+        }
+
+        try {
+            atualizarUsuario(evento.getUsuarioId());
+        } catch (RuntimeException e) {
+            carregado = false;
+        }
+    }
+
+    private void garantirCarregado() {
+        if (!carregado) {
+            lock.lock();
+            try {
+                if (!carregado) {
+                    carregar();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // A releitura fica sob o lock para que alterações concorrentes não se apliquem fora de ordem.
+    private void atualizarUsuario(Integer usuarioId) {
+        lock.lock();
+        try {
+            Optional<Integer> bairroId;
+            Set<Integer> inscricoes;
+            try (Connection conn = dataSource.getConnection()) {
+                bairroId = usuarioRepository.findBairroId(conn, usuarioId);
+                inscricoes = new HashSet<>(inscricaoRepository.findBairroIdsByUsuarioId(conn, usuarioId));
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao atualizar índice de moradores por bairro: " + e.getMessage(), e);
+            }
+
+            Integer bairroAnterior = bairroDoUsuario.get(usuarioId);
+            Integer bairroNovo = bairroId.orElse(null);
+            if (bairroAnterior != null && !bairroAnterior.equals(bairroNovo)) {
+                remover(moradores, bairroAnterior, usuarioId);
+            }
+            if (bairroNovo != null && !bairroNovo.equals(bairroAnterior)) {
+                adicionar(moradores, bairroNovo, usuarioId);
+            }
+            if (bairroNovo != null) {
+                bairroDoUsuario.put(usuarioId, bairroNovo);
+            } else {
+                bairroDoUsuario.remove(usuarioId);
+            }
+
+            Set<Integer> inscricoesAnteriores = inscricoesDoUsuario.getOrDefault(usuarioId, Set.of());
+            for (Integer anterior : inscricoesAnteriores) {
+                if (!inscricoes.contains(anterior)) {
+                    remover(inscritos, anterior, usuarioId);
+                }
+            }
+            for (Integer nova : inscricoes) {
+                if (!inscricoesAnteriores.contains(nova)) {
+                    adicionar(inscritos, nova, usuarioId);
+                }
+            }
+            if (inscricoes.isEmpty()) {
+                inscricoesDoUsuario.remove(usuarioId);
+            } else {
+                inscricoesDoUsuario.put(usuarioId, Set.copyOf(inscricoes));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void adicionar(Map<Integer, RoaringBitmap> indice, Integer bairroId, int usuarioId) {
+        RoaringBitmap copia = indice.getOrDefault(bairroId, VAZIO).clone();
+        copia.add(usuarioId);
+        indice.put(bairroId, copia);
+    }
+
+    private static void remover(Map<Integer, RoaringBitmap> indice, Integer bairroId, int usuarioId) {
+        RoaringBitmap atual = indice.get(bairroId);
+        if (atual == null) {
+            return;
+        }
+
+        RoaringBitmap copia = atual.clone();
+        copia.remove(usuarioId);
+        if (copia.isEmpty()) {
+            indice.remove(bairroId);
+        } else {
+            indice.put(bairroId, copia);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.models.Notificacao;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+@ApplicationScoped
+public class NotificacaoReactiveRepository {
+
+    @Inject
+    LeituraReativa leitura;
+
+    @Inject
+    NotificacaoRepository notificacaoRepository;
+
+    public Uni<List<Notificacao>> findNaoLidasByUsuarioId(Integer usuarioId) {
+        String sql = """
+            SELECT id, usuario_id, titulo, mensagem, prioridade, lida,
+                   created_at, updated_at, deleted_at
+            FROM gs_notificacao 
+            WHERE usuario_id = ? AND lida = 0 AND deleted_at IS NULL
+            ORDER BY created_at DESC
+            """;
+
+        return leitura.executar(
+                pool -> pool.preparedQuery(sql)
+                        .execute(Tuple.of(usuarioId))
+                        .map(rows -> LeituraReativa.listar(rows, this::mapRowToNotificacao)),
+                () -> notificacaoRepository.findNaoLidasByUsuarioId(usuarioId));
+    }
+
+    private Notificacao mapRowToNotificacao(Row row) {
+        Notificacao notificacao = new Notificacao();
+        notificacao.setId(row.getInteger("id"));
+        notificacao.setUsuarioId(row.getInteger("usuario_id"));
+        notificacao.setTitulo(row.getString("titulo"));
+        notificacao.setMensagem(row.getString("mensagem"));
+        notificacao.setLida(Colunas.flag(row.getInteger("lida")));
+        notificacao.setPrioridade(Colunas.tipoRisco(row.getString("prioridade")));
+
+        notificacao.setCreatedAt(row.getLocalDateTime("created_at"));
+        notificacao.setUpdatedAt(row.getLocalDateTime("updated_at"));
+        notificacao.setDeletedAt(row.getLocalDateTime("deleted_at"));
+
+        return notificacao;
+    }
+}
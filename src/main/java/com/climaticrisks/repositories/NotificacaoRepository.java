@@ -1,29 +1,56 @@
 package com.climaticrisks.repositories;
 
+import com.climaticrisks.events.NotificacoesCriadas;
+import com.climaticrisks.events.NotificacoesLidas;
 import com.climaticrisks.models.Notificacao;
 import com.climaticrisks.enums.TipoRisco;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import org.roaringbitmap.RoaringBitmap;
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+@QueryMetrics
 @ApplicationScoped
 public class NotificacaoRepository {
 
+    private static final int TAMANHO_LOTE = 1000;
+
     @Inject
     DataSource dataSource;
 
+    @Inject
+    BairroRepository bairroRepository;
+
+    @Inject
+    MoradoresBairroIndex moradoresBairroIndex;
+
+    @Inject
+    Event<NotificacoesCriadas> notificacoesCriadas;
+
+    @Inject
+    Event<NotificacoesLidas> notificacoesLidas;
+
     public Notificacao save(Notificacao notificacao) {
         String sql = """
             INSERT INTO gs_notificacao (usuario_id, titulo, mensagem, prioridade, lida, created_at, updated_at)
-            VALUES (?, ?, ?, ?, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            VALUES (?, ?, ?, ?, 0, ?, ?)
             """;
 
+        LocalDateTime agora = LocalDateTime.now();
+
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
 
             stmt.setInt(1, notificacao.getUsuarioId());
             stmt.setString(2, notificacao.getTitulo());
@@ -35,29 +62,15 @@ public class NotificacaoRepository {
             }
 
             stmt.setString(4, notificacao.getPrioridade() != null ? notificacao.getPrioridade().getValor() : "baixo");
+            stmt.setTimestamp(5, Timestamp.valueOf(agora));
+            stmt.setTimestamp(6, Timestamp.valueOf(agora));
 
-            int rowsAffected = stmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                String selectSql = """
-                    SELECT id FROM gs_notificacao 
-                    WHERE usuario_id = ? AND titulo = ? AND created_at = (SELECT MAX(created_at) FROM gs_notificacao WHERE usuario_id = ?)
-                    """;
-
-                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                    selectStmt.setInt(1, notificacao.getUsuarioId());
-                    selectStmt.setString(2, notificacao.getTitulo());
-                    selectStmt.setInt(3, notificacao.getUsuarioId());
-
-                    try (ResultSet rs = selectStmt.executeQuery()) {
-                        if (rs.next()) {
-                            notificacao.setId(rs.getInt("id"));
-                        }
-                    }
-                }
-            }
+            notificacao.setId(GeneratedKeys.executeInsert(stmt));
 
             notificacao.setLida(false);
+            notificacao.setCreatedAt(agora);
+            notificacao.setUpdatedAt(agora);
+            notificacoesCriadas.fire(new NotificacoesCriadas(List.of(notificacao)));
             return notificacao;
 
         } catch (SQLException e) {
@@ -121,20 +134,23 @@ public class NotificacaoRepository {
         }
     }
 
-    public void marcarComoLida(Integer id) {
+    public void marcarComoLida(Integer id, Integer usuarioId) {
         String sql = """
             UPDATE gs_notificacao 
             SET lida = 1, updated_at = CURRENT_TIMESTAMP
-            WHERE id = ? AND deleted_at IS NULL
+            WHERE id = ? AND usuario_id = ? AND lida = 0 AND deleted_at IS NULL
             """;
 
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
+            stmt.setInt(2, usuarioId);
 
             int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
+            if (rowsAffected > 0) {
+                notificacoesLidas.fire(new NotificacoesLidas(usuarioId, rowsAffected));
+            } else if (findById(id).filter(n -> usuarioId.equals(n.getUsuarioId())).isEmpty()) {
                 throw new RuntimeException("Notificação não encontrada para marcar como lida");
             }
         } catch (SQLException e) {
@@ -153,50 +169,201 @@ public class NotificacaoRepository {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, usuarioId);
-            stmt.executeUpdate();
+
+            int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                notificacoesLidas.fire(new NotificacoesLidas(usuarioId, rowsAffected));
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao marcar todas as notificações como lidas", e);
         }
     }
 
+    public int countNaoLidasByUsuarioId(Integer usuarioId) {
+        return countNaoLidasByUsuarioIds(List.of(usuarioId)).getOrDefault(usuarioId, 0);
+    }
+
+    // Usuários sem notificações não lidas ficam de fora do mapa.
+    public Map<Integer, Integer> countNaoLidasByUsuarioIds(Collection<Integer> usuarioIds) {
+        Map<Integer, Integer> totais = new HashMap<>();
+        List<Integer> lista = new ArrayList<>(usuarioIds);
+
+        try (Connection conn = dataSource.getConnection()) {
+            for (int inicio = 0; inicio < lista.size(); inicio += TAMANHO_LOTE) {
+                List<Integer> parte = lista.subList(inicio, Math.min(inicio + TAMANHO_LOTE, lista.size()));
+                String sql = """
+                    SELECT usuario_id, COUNT(*) AS total
+                    FROM gs_notificacao
+                    WHERE usuario_id IN (%s) AND lida = 0 AND deleted_at IS NULL
+                    GROUP BY usuario_id
+                    """.formatted(String.join(", ", Collections.nCopies(parte.size(), "?")));
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < parte.size(); i++) {
+                        stmt.setInt(i + 1, parte.get(i));
+                    }
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            totais.put(rs.getInt("usuario_id"), rs.getInt("total"));
+                        }
+                    }
+                }
+            }
+
+            return totais;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao contar notificações não lidas", e);
+        }
+    }
+
     public List<Integer> findUsuariosByBairro(String bairro) {
+        List<Integer> usuarioIds = new ArrayList<>();
+
+        Optional<Integer> bairroId = bairroRepository.findIdByNome(bairro);
+        if (bairroId.isPresent()) {
+            for (int usuarioId : moradoresBairroIndex.destinatarios(List.of(bairroId.get()))) {
+                usuarioIds.add(usuarioId);
+            }
+        }
+
+        return usuarioIds;
+    }
+
+    public int notificarUsuariosPorBairro(String bairro, String titulo, String mensagem, TipoRisco prioridade) {
+        Optional<Integer> bairroId = bairroRepository.findIdByNome(bairro);
+        if (bairroId.isEmpty()) {
+            return 0;
+        }
+
+        return notificarUsuarios(moradoresBairroIndex.destinatarios(List.of(bairroId.get())), titulo, mensagem, prioridade);
+    }
+
+    public int notificarUsuarios(RoaringBitmap usuarioIds, String titulo, String mensagem, TipoRisco prioridade) {
+        if (usuarioIds.isEmpty()) {
+            return 0;
+        }
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            List<Notificacao> criadas = inserirLote(conn, usuarioIds, titulo, mensagem, prioridade);
+
+            conn.commit();
+            // Só depois do commit: quem assina o stream não pode receber uma notificação que ainda pode ser desfeita.
+            notificacoesCriadas.fire(new NotificacoesCriadas(criadas));
+            return criadas.size();
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
+            throw new RuntimeException("Erro ao notificar usuários: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
+        }
+    }
+
+    // Grava uma notificação por usuário na transação de quem chama; o commit e o evento ficam com ele.
+    List<Notificacao> inserirLote(Connection conn, RoaringBitmap usuarioIds, String titulo, String mensagem,
+                                  TipoRisco prioridade) throws SQLException {
         String sql = """
-            SELECT DISTINCT u.id 
-            FROM gs_usuario u 
-            INNER JOIN gs_endereco e ON u.endereco_id = e.id 
-            WHERE UPPER(e.bairro) = UPPER(?) AND u.deleted_at IS NULL AND e.deleted_at IS NULL
+            INSERT INTO gs_notificacao (usuario_id, titulo, mensagem, prioridade, lida, created_at, updated_at)
+            VALUES (?, ?, ?, ?, 0, ?, ?)
             """;
 
-        List<Integer> usuarioIds = new ArrayList<>();
+        List<Notificacao> criadas = new ArrayList<>(usuarioIds.getCardinality());
+        if (usuarioIds.isEmpty()) {
+            return criadas;
+        }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        LocalDateTime agora = LocalDateTime.now();
+
+        try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
+            List<Notificacao> pendentes = new ArrayList<>(TAMANHO_LOTE);
+            for (int usuarioId : usuarioIds) {
+                Notificacao notificacao = new Notificacao();
+                notificacao.setUsuarioId(usuarioId);
+                notificacao.setLida(false);
+                notificacao.setCreatedAt(agora);
+                notificacao.setUpdatedAt(agora);
+                notificacao.setTitulo(titulo);
+                notificacao.setMensagem(mensagem != null && !mensagem.trim().isEmpty() ? mensagem : null);
+                notificacao.setPrioridade(prioridade != null ? prioridade : TipoRisco.BAIXO);
+
+                stmt.setInt(1, usuarioId);
+                stmt.setString(2, titulo);
+
+                if (notificacao.getMensagem() != null) {
+                    stmt.setString(3, mensagem);
+                } else {
+                    stmt.setNull(3, Types.CLOB);
+                }
 
-            stmt.setString(1, bairro.trim());
+                stmt.setString(4, notificacao.getPrioridade().getValor());
+                stmt.setTimestamp(5, Timestamp.valueOf(agora));
+                stmt.setTimestamp(6, Timestamp.valueOf(agora));
+                stmt.addBatch();
+                pendentes.add(notificacao);
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    usuarioIds.add(rs.getInt("id"));
+                if (pendentes.size() == TAMANHO_LOTE) {
+                    atribuirIds(stmt, pendentes);
+                    criadas.addAll(pendentes);
+                    pendentes.clear();
                 }
             }
 
-            return usuarioIds;
-        } catch (SQLException e) {
-            throw new RuntimeException("Erro ao buscar usuários por bairro", e);
+            if (!pendentes.isEmpty()) {
+                atribuirIds(stmt, pendentes);
+                criadas.addAll(pendentes);
+            }
         }
+
+        return criadas;
     }
 
-    public void notificarUsuariosPorBairro(String bairro, String titulo, String mensagem, TipoRisco prioridade) {
-        List<Integer> usuarioIds = findUsuariosByBairro(bairro);
+    // Notificações do usuário gravadas depois de ultimoId, em ordem de id, para retomar o stream.
+    public List<Notificacao> findByUsuarioIdAposId(Integer usuarioId, Integer ultimoId, int limite) {
+        String sql = """
+            SELECT id, usuario_id, titulo, mensagem, prioridade, lida,
+                   created_at, updated_at, deleted_at
+            FROM gs_notificacao
+            WHERE usuario_id = ? AND id > ? AND deleted_at IS NULL
+            ORDER BY id
+            FETCH FIRST ? ROWS ONLY
+            """;
+
+        List<Notificacao> notificacoes = new ArrayList<>();
 
-        for (Integer usuarioId : usuarioIds) {
-            Notificacao notificacao = new Notificacao();
-            notificacao.setUsuarioId(usuarioId);
-            notificacao.setTitulo(titulo);
-            notificacao.setMensagem(mensagem);
-            notificacao.setPrioridade(prioridade);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, ultimoId);
+            stmt.setInt(3, limite);
 
-            save(notificacao);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    notificacoes.add(mapResultSetToNotificacao(rs));
+                }
+            }
+
+            return notificacoes;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar notificações após o último id recebido", e);
         }
     }
 
@@ -225,22 +392,21 @@ public class NotificacaoRepository {
         }
     }
 
+    private static void atribuirIds(PreparedStatement stmt, List<Notificacao> pendentes) throws SQLException {
+        List<Integer> ids = GeneratedKeys.executeBatch(stmt, pendentes.size());
+        for (int i = 0; i < ids.size(); i++) {
+            pendentes.get(i).setId(ids.get(i));
+        }
+    }
+
     private Notificacao mapResultSetToNotificacao(ResultSet rs) throws SQLException {
         Notificacao notificacao = new Notificacao();
         notificacao.setId(rs.getInt("id"));
         notificacao.setUsuarioId(rs.getInt("usuario_id"));
         notificacao.setTitulo(rs.getString("titulo"));
         notificacao.setMensagem(rs.getString("mensagem"));
-        notificacao.setLida(rs.getInt("lida") == 1);
-
-        String prioridade = rs.getString("prioridade");
-        if (prioridade != null) {
-            switch (prioridade.toLowerCase()) {
-                case "baixo" -> notificacao.setPrioridade(TipoRisco.BAIXO);
-                case "medio", "médio" -> notificacao.setPrioridade(TipoRisco.MEDIO);
-                case "alto" -> notificacao.setPrioridade(TipoRisco.ALTO);
-            }
-        }
+        notificacao.setLida(Colunas.flag(rs.getInt("lida")));
+        notificacao.setPrioridade(Colunas.tipoRisco(rs.getString("prioridade")));
 
         Timestamp createdAt = rs.getTimestamp("created_at");
         if (createdAt != null) {
@@ -0,0 +1,239 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.enums.TipoRisco;
+import com.climaticrisks.events.NotificacoesCriadas;
+import com.climaticrisks.metrics.QueryMetrics;
+import com.climaticrisks.models.AlertaDefesaCivil;
+import com.climaticrisks.models.Notificacao;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.roaringbitmap.RoaringBitmap;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@QueryMetrics
+@ApplicationScoped
+public class OutboxAlertaRepository {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 1000;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    NotificacaoRepository notificacaoRepository;
+
+    @Inject
+    BairroRepository bairroRepository;
+
+    @Inject
+    MoradoresBairroIndex moradoresBairroIndex;
+
+    @Inject
+    Event<NotificacoesCriadas> notificacoesCriadas;
+
+    // Chamado na transação que grava o alerta: ou os dois ficam gravados, ou nenhum.
+    void registrar(Connection conn, AlertaDefesaCivil alerta) throws SQLException {
+        String sql = """
+            INSERT INTO gs_outbox_alerta (alerta_id, titulo, mensagem, prioridade, bairros)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+        String bairros = alerta.getBairrosAfetados().trim();
+        String mensagem = String.format(
+                "Novo alerta para o bairro %s: %s",
+                bairros,
+                alerta.getDescricao() != null ? alerta.getDescricao() : "Verifique as informações oficiais."
+        );
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, alerta.getId());
+            stmt.setString(2, alerta.getTitulo());
+            stmt.setString(3, mensagem);
+            stmt.setString(4, alerta.getNivelAlerta() != null ? alerta.getNivelAlerta().getValor() : "baixo");
+            stmt.setString(5, bairros);
+            stmt.executeUpdate();
+        }
+    }
+
+    public List<Integer> findPendentes(int limite) {
+        String sql = """
+            SELECT id
+            FROM gs_outbox_alerta
+            WHERE processado_em IS NULL AND descartado_em IS NULL AND proxima_tentativa <= CURRENT_TIMESTAMP
+            ORDER BY id
+            FETCH FIRST ? ROWS ONLY
+            """;
+
+        List<Integer> ids = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("id"));
+                }
+            }
+
+            return ids;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar pendências da outbox de alertas", e);
+        }
+    }
+
+    // As notificações e a baixa da linha saem no mesmo commit: uma queda no meio não perde nem duplica o envio.
+    // Retorna false se outra instância já está com a linha ou já a processou.
+    public boolean processar(Integer id) {
+        String selectSql = """
+            SELECT titulo, mensagem, prioridade, bairros
+            FROM gs_outbox_alerta
+            WHERE id = ? AND processado_em IS NULL AND descartado_em IS NULL
+            FOR UPDATE SKIP LOCKED
+            """;
+
+        String updateSql = """
+            UPDATE gs_outbox_alerta
+            SET processado_em = CURRENT_TIMESTAMP, destinatarios = ?, ultimo_erro = NULL
+            WHERE id = ?
+            """;
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            String titulo;
+            String mensagem;
+            TipoRisco prioridade;
+            String bairros;
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return false;
+                    }
+                    titulo = rs.getString("titulo");
+                    mensagem = rs.getString("mensagem");
+                    prioridade = prioridadeDe(rs.getString("prioridade"));
+                    bairros = rs.getString("bairros");
+                }
+            }
+
+            RoaringBitmap destinatarios = moradoresBairroIndex.destinatarios(bairroIds(bairros));
+            List<Notificacao> criadas = notificacaoRepository.inserirLote(conn, destinatarios, titulo, mensagem, prioridade);
+
+            try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+                stmt.setInt(1, criadas.size());
+                stmt.setInt(2, id);
+                stmt.executeUpdate();
+            }
+
+            conn.commit();
+            notificacoesCriadas.fire(new NotificacoesCriadas(criadas));
+            return true;
+
+        } catch (SQLException | RuntimeException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
+            throw new RuntimeException("Erro ao processar outbox do alerta: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
+        }
+    }
+
+    // Reagenda com espera exponencial a partir de intervalo, limitada a maximo; na tentativa maxTentativas a linha
+    // é descartada. Retorna true se descartou.
+    public boolean registrarFalha(Integer id, String erro, Duration intervalo, Duration maximo, int maxTentativas) {
+        String sql = """
+            UPDATE gs_outbox_alerta
+            SET tentativas = tentativas + 1,
+                proxima_tentativa = CURRENT_TIMESTAMP + NUMTODSINTERVAL(LEAST(? * POWER(2, tentativas), ?), 'SECOND'),
+                descartado_em = CASE WHEN tentativas + 1 >= ? THEN CURRENT_TIMESTAMP END,
+                ultimo_erro = ?
+            WHERE id = ? AND processado_em IS NULL AND descartado_em IS NULL
+            """;
+
+        String descartadaSql = "SELECT descartado_em FROM gs_outbox_alerta WHERE id = ?";
+
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, intervalo.toSeconds());
+                stmt.setLong(2, maximo.toSeconds());
+                stmt.setInt(3, maxTentativas);
+
+                if (erro != null) {
+                    stmt.setString(4, truncar(erro));
+                } else {
+                    stmt.setNull(4, Types.VARCHAR);
+                }
+
+                stmt.setInt(5, id);
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(descartadaSql)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() && rs.getTimestamp("descartado_em") != null;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao registrar falha na outbox de alertas", e);
+        }
+    }
+
+    // ultimo_erro é VARCHAR2(1000 CHAR): corta em caracteres sem partir um par de surrogates.
+    private static String truncar(String erro) {
+        if (erro.codePointCount(0, erro.length()) <= TAMANHO_MAXIMO_ERRO) {
+            return erro;
+        }
+        return erro.substring(0, erro.offsetByCodePoints(0, TAMANHO_MAXIMO_ERRO));
+    }
+
+    private Set<Integer> bairroIds(String bairros) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String bairro : BairroRepository.separar(bairros)) {
+            bairroRepository.findIdByNome(bairro).ifPresent(ids::add);
+        }
+        return ids;
+    }
+
+    private static TipoRisco prioridadeDe(String prioridade) {
+        return switch (prioridade.toLowerCase()) {
+            case "medio", "médio" -> TipoRisco.MEDIO;
+            case "alto" -> TipoRisco.ALTO;
+            default -> TipoRisco.BAIXO;
+        };
+    }
+}
@@ -1,56 +1,58 @@
 package com.climaticrisks.repositories;
 
 import com.climaticrisks.models.RelatorioEvento;
+import com.climaticrisks.requests.PageRequest;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+@QueryMetrics
 @ApplicationScoped
 public class RelatorioEventoRepository {
 
+    private static final String REGIAO_CONSOLIDADO = "CONSOLIDADO";
+
     @Inject
     DataSource dataSource;
 
+    @Inject
+    BairroRepository bairroRepository;
+
+    @ConfigProperty(name = "climaticrisks.export.fetch-size", defaultValue = "500")
+    int exportFetchSize;
+
+    @ConfigProperty(name = "climaticrisks.relatorios.usar-consolidado-mensal", defaultValue = "false")
+    boolean usarConsolidadoMensal;
+
     public RelatorioEvento save(RelatorioEvento relatorio) {
         String sql = """
-            INSERT INTO gs_relatorio_evento (periodo, regiao, total_alagamentos, total_deslizamentos, total_diagnosticos, created_at, updated_at)
-            VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            INSERT INTO gs_relatorio_evento (periodo, regiao, total_alagamentos, total_deslizamentos, total_diagnosticos, bairro_id, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
             """;
 
+        Integer bairroId = bairroIdDaRegiao(relatorio.getRegiao());
+
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
 
             stmt.setString(1, relatorio.getPeriodo());
             stmt.setString(2, relatorio.getRegiao());
             stmt.setInt(3, relatorio.getTotalAlagamentos() != null ? relatorio.getTotalAlagamentos() : 0);
             stmt.setInt(4, relatorio.getTotalDeslizamentos() != null ? relatorio.getTotalDeslizamentos() : 0);
             stmt.setInt(5, relatorio.getTotalDiagnosticos() != null ? relatorio.getTotalDiagnosticos() : 0);
+            bindBairroId(stmt, 6, bairroId);
 
-            int rowsAffected = stmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                String selectSql = """
-                    SELECT id FROM gs_relatorio_evento 
-                    WHERE periodo = ? AND regiao = ? AND created_at = (SELECT MAX(created_at) FROM gs_relatorio_evento WHERE periodo = ? AND regiao = ?)
-                    """;
-
-                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                    selectStmt.setString(1, relatorio.getPeriodo());
-                    selectStmt.setString(2, relatorio.getRegiao());
-                    selectStmt.setString(3, relatorio.getPeriodo());
-                    selectStmt.setString(4, relatorio.getRegiao());
-
-                    try (ResultSet rs = selectStmt.executeQuery()) {
-                        if (rs.next()) {
-                            relatorio.setId(rs.getInt("id"));
-                        }
-                    }
-                }
-            }
+            relatorio.setId(GeneratedKeys.executeInsert(stmt));
 
             return relatorio;
 
@@ -84,28 +86,46 @@ public class RelatorioEventoRepository {
         }
     }
 
-    public List<RelatorioEvento> findAll() {
+    public List<RelatorioEvento> findPage(PageRequest page) {
         String sql = """
             SELECT id, periodo, regiao, total_alagamentos, total_deslizamentos, total_diagnosticos,
                    created_at, updated_at, deleted_at
-            FROM gs_relatorio_evento 
+            FROM gs_relatorio_evento
             WHERE deleted_at IS NULL
-            ORDER BY created_at DESC
-            """;
+            """ + KeysetPagination.clause(page, "");
 
         List<RelatorioEvento> relatorios = new ArrayList<>();
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            KeysetPagination.bind(stmt, 1, page);
 
-            while (rs.next()) {
-                relatorios.add(mapResultSetToRelatorio(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    relatorios.add(mapResultSetToRelatorio(rs));
+                }
             }
 
             return relatorios;
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao buscar todos os relatórios", e);
+            throw new RuntimeException("Erro ao buscar relatórios", e);
+        }
+    }
+
+    public StreamingQuery<RelatorioEvento> streamAll() {
+        String sql = """
+            SELECT id, periodo, regiao, total_alagamentos, total_deslizamentos, total_diagnosticos,
+                   created_at, updated_at, deleted_at
+            FROM gs_relatorio_evento
+            WHERE deleted_at IS NULL
+            ORDER BY id
+            """;
+
+        try {
+            return StreamingQuery.abrir(dataSource, sql, exportFetchSize, this::mapResultSetToRelatorio);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao exportar relatórios", e);
         }
     }
 
@@ -142,16 +162,34 @@ public class RelatorioEventoRepository {
             SELECT id, periodo, regiao, total_alagamentos, total_deslizamentos, total_diagnosticos,
                    created_at, updated_at, deleted_at
             FROM gs_relatorio_evento 
-            WHERE UPPER(regiao) = UPPER(?) AND deleted_at IS NULL
+            WHERE bairro_id = ? AND deleted_at IS NULL
+            ORDER BY periodo DESC
+            """;
+
+        String semBairroSql = """
+            SELECT id, periodo, regiao, total_alagamentos, total_deslizamentos, total_diagnosticos,
+                   created_at, updated_at, deleted_at
+            FROM gs_relatorio_evento 
+            WHERE bairro_id IS NULL AND regiao = ? AND deleted_at IS NULL
             ORDER BY periodo DESC
             """;
 
         List<RelatorioEvento> relatorios = new ArrayList<>();
 
+        boolean consolidado = REGIAO_CONSOLIDADO.equalsIgnoreCase(regiao.trim());
+        Optional<Integer> bairroId = consolidado ? Optional.empty() : bairroRepository.findIdByNome(regiao);
+
+        // Consolidado e regiões sem bairro cadastrado são gravados com bairro_id nulo: busca pelo texto.
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(bairroId.isEmpty() ? semBairroSql : sql)) {
 
-            stmt.setString(1, regiao);
+            if (consolidado) {
+                stmt.setString(1, REGIAO_CONSOLIDADO);
+            } else if (bairroId.isEmpty()) {
+                stmt.setString(1, regiao);
+            } else {
+                stmt.setInt(1, bairroId.get());
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -166,62 +204,65 @@ public class RelatorioEventoRepository {
     }
 
     public RelatorioEvento gerarRelatorioAutomatico(String periodo, String regiao) {
-        try (Connection conn = dataSource.getConnection()) {
-
-            String alagamentosSql = """
-                SELECT COUNT(*) as total 
-                FROM gs_alagamento a
-                INNER JOIN gs_endereco e ON a.endereco_id = e.id
-                WHERE UPPER(e.bairro) = UPPER(?) 
-                AND a.deleted_at IS NULL 
-                AND e.deleted_at IS NULL
-                AND TO_CHAR(a.data_ocorrencia, 'YYYY-MM') = ?
-                """;
+        YearMonth mes = parsePeriodo(periodo);
 
-            int totalAlagamentos = 0;
-            try (PreparedStatement stmt = conn.prepareStatement(alagamentosSql)) {
-                stmt.setString(1, regiao);
-                stmt.setString(2, periodo);
+        String sql = """
+            SELECT
+                (SELECT COUNT(*)
+                 FROM gs_alagamento a
+                 INNER JOIN gs_endereco e ON a.endereco_id = e.id
+                 WHERE e.bairro_id = ?
+                 AND a.deleted_at IS NULL
+                 AND e.deleted_at IS NULL
+                 AND a.data_ocorrencia >= ? AND a.data_ocorrencia < ?) AS total_alagamentos,
+                (SELECT COUNT(*)
+                 FROM gs_deslizamento d
+                 INNER JOIN gs_endereco e ON d.endereco_id = e.id
+                 WHERE e.bairro_id = ?
+                 AND d.deleted_at IS NULL
+                 AND e.deleted_at IS NULL
+                 AND d.data_ocorrencia >= ? AND d.data_ocorrencia < ?) AS total_deslizamentos
+            FROM DUAL
+            """;
 
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        totalAlagamentos = rs.getInt("total");
-                    }
-                }
-            }
+        String consolidadoSql = """
+            SELECT NVL(SUM(CASE WHEN tipo_evento = 'A' THEN total END), 0) AS total_alagamentos,
+                   NVL(SUM(CASE WHEN tipo_evento = 'D' THEN total END), 0) AS total_deslizamentos
+            FROM gs_evento_mensal_bairro
+            WHERE periodo = ? AND bairro_id = ?
+            """;
 
-            String deslizamentosSql = """
-                SELECT COUNT(*) as total 
-                FROM gs_deslizamento d
-                INNER JOIN gs_endereco e ON d.endereco_id = e.id
-                WHERE UPPER(e.bairro) = UPPER(?) 
-                AND d.deleted_at IS NULL 
-                AND e.deleted_at IS NULL
-                AND TO_CHAR(d.data_ocorrencia, 'YYYY-MM') = ?
-                """;
+        // Bairro que nunca recebeu endereço não tem eventos: o relatório sai zerado sem consultar.
+        Optional<Integer> bairroId = bairroRepository.findIdByNome(regiao);
+        if (bairroId.isEmpty()) {
+            return save(novoRelatorio(periodo, regiao, 0, 0));
+        }
 
-            int totalDeslizamentos = 0;
-            try (PreparedStatement stmt = conn.prepareStatement(deslizamentosSql)) {
-                stmt.setString(1, regiao);
-                stmt.setString(2, periodo);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(usarConsolidadoMensal ? consolidadoSql : sql)) {
+
+            if (usarConsolidadoMensal) {
+                stmt.setString(1, mes.toString());
+                stmt.setInt(2, bairroId.get());
+            } else {
+                stmt.setInt(1, bairroId.get());
+                stmt.setTimestamp(2, inicioDoMes(mes));
+                stmt.setTimestamp(3, inicioDoMes(mes.plusMonths(1)));
+                stmt.setInt(4, bairroId.get());
+                stmt.setTimestamp(5, inicioDoMes(mes));
+                stmt.setTimestamp(6, inicioDoMes(mes.plusMonths(1)));
+            }
 
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        totalDeslizamentos = rs.getInt("total");
-                    }
+            int totalAlagamentos = 0;
+            int totalDeslizamentos = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    totalAlagamentos = rs.getInt("total_alagamentos");
+                    totalDeslizamentos = rs.getInt("total_deslizamentos");
                 }
             }
 
-            int totalDiagnosticos = totalAlagamentos + totalDeslizamentos;
-
-            RelatorioEvento relatorio = new RelatorioEvento();
-            relatorio.setPeriodo(periodo);
-            relatorio.setRegiao(regiao);
-            relatorio.setTotalAlagamentos(totalAlagamentos);
-            relatorio.setTotalDeslizamentos(totalDeslizamentos);
-            relatorio.setTotalDiagnosticos(totalDiagnosticos);
-
-            return save(relatorio);
+            return save(novoRelatorio(periodo, regiao, totalAlagamentos, totalDeslizamentos));
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao gerar relatório automático: " + e.getMessage(), e);
@@ -229,54 +270,46 @@ public class RelatorioEventoRepository {
     }
 
     public RelatorioEvento gerarRelatorioConsolidado(String periodo) {
-        try (Connection conn = dataSource.getConnection()) {
+        YearMonth mes = parsePeriodo(periodo);
 
-            String alagamentosSql = """
-                SELECT COUNT(*) as total 
-                FROM gs_alagamento a
-                WHERE a.deleted_at IS NULL 
-                AND TO_CHAR(a.data_ocorrencia, 'YYYY-MM') = ?
-                """;
+        String sql = """
+            SELECT
+                (SELECT COUNT(*) FROM gs_alagamento
+                 WHERE deleted_at IS NULL AND data_ocorrencia >= ? AND data_ocorrencia < ?) AS total_alagamentos,
+                (SELECT COUNT(*) FROM gs_deslizamento
+                 WHERE deleted_at IS NULL AND data_ocorrencia >= ? AND data_ocorrencia < ?) AS total_deslizamentos
+            FROM DUAL
+            """;
 
-            int totalAlagamentos = 0;
-            try (PreparedStatement stmt = conn.prepareStatement(alagamentosSql)) {
-                stmt.setString(1, periodo);
+        String consolidadoSql = """
+            SELECT NVL(SUM(CASE WHEN tipo_evento = 'A' THEN total END), 0) AS total_alagamentos,
+                   NVL(SUM(CASE WHEN tipo_evento = 'D' THEN total END), 0) AS total_deslizamentos
+            FROM gs_evento_mensal_bairro
+            WHERE periodo = ?
+            """;
 
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        totalAlagamentos = rs.getInt("total");
-                    }
-                }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(usarConsolidadoMensal ? consolidadoSql : sql)) {
+
+            if (usarConsolidadoMensal) {
+                stmt.setString(1, mes.toString());
+            } else {
+                stmt.setTimestamp(1, inicioDoMes(mes));
+                stmt.setTimestamp(2, inicioDoMes(mes.plusMonths(1)));
+                stmt.setTimestamp(3, inicioDoMes(mes));
+                stmt.setTimestamp(4, inicioDoMes(mes.plusMonths(1)));
             }
 
-            String deslizamentosSql = """
-                SELECT COUNT(*) as total 
-                FROM gs_deslizamento d
-                WHERE d.deleted_at IS NULL 
-                AND TO_CHAR(d.data_ocorrencia, 'YYYY-MM') = ?
-                """;
-
+            int totalAlagamentos = 0;
             int totalDeslizamentos = 0;
-            try (PreparedStatement stmt = conn.prepareStatement(deslizamentosSql)) {
-                stmt.setString(1, periodo);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        totalDeslizamentos = rs.getInt("total");
-                    }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    totalAlagamentos = rs.getInt("total_alagamentos");
+                    totalDeslizamentos = rs.getInt("total_deslizamentos");
                 }
             }
 
-            int totalDiagnosticos = totalAlagamentos + totalDeslizamentos;
-
-            RelatorioEvento relatorio = new RelatorioEvento();
-            relatorio.setPeriodo(periodo);
-            relatorio.setRegiao("CONSOLIDADO");
-            relatorio.setTotalAlagamentos(totalAlagamentos);
-            relatorio.setTotalDeslizamentos(totalDeslizamentos);
-            relatorio.setTotalDiagnosticos(totalDiagnosticos);
-
-            return save(relatorio);
+            return save(novoRelatorio(periodo, REGIAO_CONSOLIDADO, totalAlagamentos, totalDeslizamentos));
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao gerar relatório consolidado: " + e.getMessage(), e);
@@ -284,57 +317,178 @@ public class RelatorioEventoRepository {
     }
 
     public List<RelatorioEvento> gerarRelatoriosPorPeriodo(String periodo) {
-        List<RelatorioEvento> relatorios = new ArrayList<>();
+        YearMonth mes = parsePeriodo(periodo);
+
+        String totaisSql = """
+            SELECT GROUPING(e.bairro_id) AS consolidado,
+                   MIN(b.nome) AS regiao,
+                   SUM(CASE WHEN ev.tipo = 'A' THEN 1 ELSE 0 END) AS total_alagamentos,
+                   SUM(CASE WHEN ev.tipo = 'D' THEN 1 ELSE 0 END) AS total_deslizamentos
+            FROM (
+                SELECT endereco_id, 'A' AS tipo FROM gs_alagamento
+                WHERE deleted_at IS NULL AND data_ocorrencia >= ? AND data_ocorrencia < ?
+                UNION ALL
+                SELECT endereco_id, 'D' AS tipo FROM gs_deslizamento
+                WHERE deleted_at IS NULL AND data_ocorrencia >= ? AND data_ocorrencia < ?
+            ) ev
+            LEFT JOIN gs_endereco e ON e.id = ev.endereco_id AND e.deleted_at IS NULL
+            LEFT JOIN gs_bairro b ON b.id = e.bairro_id
+            GROUP BY ROLLUP(e.bairro_id)
+            ORDER BY consolidado, regiao
+            """;
 
-        try (Connection conn = dataSource.getConnection()) {
-
-            String regioesSql = """
-                SELECT DISTINCT e.bairro as regiao
-                FROM gs_endereco e
-                WHERE e.id IN (
-                    SELECT endereco_id FROM gs_alagamento WHERE deleted_at IS NULL AND TO_CHAR(data_ocorrencia, 'YYYY-MM') = ?
-                    UNION
-                    SELECT endereco_id FROM gs_deslizamento WHERE deleted_at IS NULL AND TO_CHAR(data_ocorrencia, 'YYYY-MM') = ?
-                )
-                AND e.deleted_at IS NULL
-                ORDER BY e.bairro
-                """;
-
-            List<String> regioes = new ArrayList<>();
-            try (PreparedStatement stmt = conn.prepareStatement(regioesSql)) {
-                stmt.setString(1, periodo);
-                stmt.setString(2, periodo);
+        String consolidadoSql = """
+            SELECT GROUPING(r.bairro_id) AS consolidado,
+                   MIN(b.nome) AS regiao,
+                   NVL(SUM(CASE WHEN r.tipo_evento = 'A' THEN r.total END), 0) AS total_alagamentos,
+                   NVL(SUM(CASE WHEN r.tipo_evento = 'D' THEN r.total END), 0) AS total_deslizamentos
+            FROM gs_evento_mensal_bairro r
+            LEFT JOIN gs_bairro b ON b.id = r.bairro_id
+            WHERE r.periodo = ?
+            GROUP BY ROLLUP(r.bairro_id)
+            ORDER BY consolidado, regiao
+            """;
+
+        List<RelatorioEvento> relatorios = new ArrayList<>();
+        RelatorioEvento consolidado = null;
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(usarConsolidadoMensal ? consolidadoSql : totaisSql)) {
+                if (usarConsolidadoMensal) {
+                    stmt.setString(1, mes.toString());
+                } else {
+                    stmt.setTimestamp(1, inicioDoMes(mes));
+                    stmt.setTimestamp(2, inicioDoMes(mes.plusMonths(1)));
+                    stmt.setTimestamp(3, inicioDoMes(mes));
+                    stmt.setTimestamp(4, inicioDoMes(mes.plusMonths(1)));
+                }
 
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        regioes.add(rs.getString("regiao"));
+                        int totalAlagamentos = rs.getInt("total_alagamentos");
+                        int totalDeslizamentos = rs.getInt("total_deslizamentos");
+
+                        if (rs.getInt("consolidado") == 1) {
+                            consolidado = novoRelatorio(periodo, REGIAO_CONSOLIDADO, totalAlagamentos, totalDeslizamentos);
+                        } else if (rs.getString("regiao") != null) {
+                            relatorios.add(novoRelatorio(periodo, rs.getString("regiao"), totalAlagamentos, totalDeslizamentos));
+                        }
                     }
                 }
             }
 
-            for (String regiao : regioes) {
-                RelatorioEvento relatorio = gerarRelatorioAutomatico(periodo, regiao);
-                relatorios.add(relatorio);
-            }
+            relatorios.add(consolidado != null ? consolidado : novoRelatorio(periodo, REGIAO_CONSOLIDADO, 0, 0));
 
-            RelatorioEvento consolidado = gerarRelatorioConsolidado(periodo);
-            relatorios.add(consolidado);
+            saveAll(conn, relatorios);
+
+            conn.commit();
+            return relatorios;
 
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    throw new RuntimeException("Erro ao fazer rollback", rollbackEx);
+                }
+            }
             throw new RuntimeException("Erro ao gerar relatórios por período: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao fechar conexão", e);
+                }
+            }
         }
+    }
 
-        return relatorios;
+    private void saveAll(Connection conn, List<RelatorioEvento> relatorios) throws SQLException {
+        String insertSql = """
+            INSERT INTO gs_relatorio_evento (periodo, regiao, total_alagamentos, total_deslizamentos, total_diagnosticos, bairro_id, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+        LocalDateTime geradoEm = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Timestamp geradoEmTs = Timestamp.valueOf(geradoEm);
+
+        try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, insertSql)) {
+            for (RelatorioEvento relatorio : relatorios) {
+                stmt.setString(1, relatorio.getPeriodo());
+                stmt.setString(2, relatorio.getRegiao());
+                stmt.setInt(3, relatorio.getTotalAlagamentos());
+                stmt.setInt(4, relatorio.getTotalDeslizamentos());
+                stmt.setInt(5, relatorio.getTotalDiagnosticos());
+                bindBairroId(stmt, 6, bairroIdDaRegiao(relatorio.getRegiao()));
+                stmt.setTimestamp(7, geradoEmTs);
+                stmt.setTimestamp(8, geradoEmTs);
+                stmt.addBatch();
+
+                relatorio.setCreatedAt(geradoEm);
+                relatorio.setUpdatedAt(geradoEm);
+            }
+
+            List<Integer> ids = GeneratedKeys.executeBatch(stmt, relatorios.size());
+            for (int i = 0; i < relatorios.size(); i++) {
+                relatorios.get(i).setId(ids.get(i));
+            }
+        }
+    }
+
+    private RelatorioEvento novoRelatorio(String periodo, String regiao, int totalAlagamentos, int totalDeslizamentos) {
+        RelatorioEvento relatorio = new RelatorioEvento();
+        relatorio.setPeriodo(periodo);
+        relatorio.setRegiao(regiao);
+        relatorio.setTotalAlagamentos(totalAlagamentos);
+        relatorio.setTotalDeslizamentos(totalDeslizamentos);
+        relatorio.setTotalDiagnosticos(totalAlagamentos + totalDeslizamentos);
+        return relatorio;
+    }
+
+    // Só leitura: relatório não cria bairro. Região sem bairro cadastrado fica com bairro_id nulo.
+    private Integer bairroIdDaRegiao(String regiao) {
+        if (regiao == null || REGIAO_CONSOLIDADO.equals(regiao)) {
+            return null;
+        }
+        return bairroRepository.findIdByNome(regiao).orElse(null);
+    }
+
+    private static void bindBairroId(PreparedStatement stmt, int index, Integer bairroId) throws SQLException {
+        if (bairroId != null) {
+            stmt.setInt(index, bairroId);
+        } else {
+            stmt.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private YearMonth parsePeriodo(String periodo) {
+        try {
+            return YearMonth.parse(periodo.trim());
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Período inválido: " + periodo + " (formato: YYYY-MM)", e);
+        }
+    }
+
+    private Timestamp inicioDoMes(YearMonth mes) {
+        return Timestamp.valueOf(mes.atDay(1).atStartOfDay());
     }
 
     public RelatorioEvento update(RelatorioEvento relatorio) {
         String sql = """
             UPDATE gs_relatorio_evento 
             SET periodo = ?, regiao = ?, total_alagamentos = ?, total_deslizamentos = ?, 
-                total_diagnosticos = ?, updated_at = CURRENT_TIMESTAMP
+                total_diagnosticos = ?, bairro_id = ?, updated_at = CURRENT_TIMESTAMP
             WHERE id = ? AND deleted_at IS NULL
             """;
 
+        Integer bairroId = bairroIdDaRegiao(relatorio.getRegiao());
+
         try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -343,7 +497,8 @@ public class RelatorioEventoRepository {
             stmt.setInt(3, relatorio.getTotalAlagamentos() != null ? relatorio.getTotalAlagamentos() : 0);
             stmt.setInt(4, relatorio.getTotalDeslizamentos() != null ? relatorio.getTotalDeslizamentos() : 0);
             stmt.setInt(5, relatorio.getTotalDiagnosticos() != null ? relatorio.getTotalDiagnosticos() : 0);
-            stmt.setInt(6, relatorio.getId());
+            bindBairroId(stmt, 6, bairroId);
+            stmt.setInt(7, relatorio.getId());
 
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected == 0) {
@@ -0,0 +1,63 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.responses.JsonArrayStream;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+public final class StreamingQuery<T> implements JsonArrayStream.Source<T> {
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final PreparedStatement stmt;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+
+    private StreamingQuery(Connection conn, PreparedStatement stmt, ResultSet rs, RowMapper<T> mapper) {
+        this.conn = conn;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    // Executa a consulta na abertura: erro de conexão ou de SQL aparece antes de a resposta começar.
+    static <T> StreamingQuery<T> abrir(DataSource dataSource, String sql, int fetchSize,
+                                       RowMapper<T> mapper) throws SQLException {
+        Connection conn = dataSource.getConnection();
+        try {
+            PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize);
+            return new StreamingQuery<>(conn, stmt, stmt.executeQuery(), mapper);
+        } catch (SQLException | RuntimeException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> consumer) {
+        try {
+            while (rs.next()) {
+                consumer.accept(mapper.map(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao ler exportação: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try (conn; stmt; rs) {
+        } catch (SQLException e) {
+            // A conexão volta ao pool mesmo assim.
+        }
+    }
+}
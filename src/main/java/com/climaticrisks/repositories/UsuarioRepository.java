@@ -1,25 +1,38 @@
 package com.climaticrisks.repositories;
 
+import com.climaticrisks.events.UsuarioAlterado;
 import com.climaticrisks.models.Usuario;
 import com.climaticrisks.models.Endereco;
+import com.climaticrisks.requests.PageRequest;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
+@QueryMetrics
 @ApplicationScoped
 public class UsuarioRepository {
 
     @Inject
     DataSource dataSource;
 
+    @ConfigProperty(name = "climaticrisks.export.fetch-size", defaultValue = "500")
+    int exportFetchSize;
+
     @Inject
     EnderecoRepository enderecoRepository;
 
+    @Inject
+    Event<UsuarioAlterado> usuarioAlterado;
+
     public Usuario save(Usuario usuario) {
         Connection conn = null;
         try {
@@ -36,7 +49,7 @@ public class UsuarioRepository {
             VALUES (?, ?, ?, ?, ?, ?)
             """;
 
-            try (PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"ID"})) {
+            try (PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
                 stmt.setString(1, usuario.getNome());
                 stmt.setString(2, usuario.getEmail());
                 stmt.setString(3, usuario.getTelefone());
@@ -50,26 +63,11 @@ public class UsuarioRepository {
                 stmt.setString(5, usuario.getSenha());
                 stmt.setInt(6, usuario.getDefesaCivil() != null && usuario.getDefesaCivil() ? 1 : 0);
 
-                stmt.executeUpdate();
-
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        try {
-                            usuario.setId(rs.getInt(1));
-                        } catch (SQLException e) {
-                            String idStr = rs.getString(1);
-                            if (idStr != null && idStr.matches("\\d+")) {
-                                usuario.setId(Integer.parseInt(idStr));
-                            } else {
-                                System.err.println("ID retornado não é numérico: '" + idStr + "', buscando último ID inserido");
-                                usuario.setId(getLastInsertedId(conn, "gs_usuario"));
-                            }
-                        }
-                    }
-                }
+                usuario.setId(GeneratedKeys.executeInsert(stmt));
             }
 
             conn.commit();
+            usuarioAlterado.fire(new UsuarioAlterado(usuario.getId()));
             return usuario;
 
         } catch (SQLException e) {
@@ -93,17 +91,6 @@ public class UsuarioRepository {
         }
     }
 
-    private Integer getLastInsertedId(Connection conn, String tableName) throws SQLException {
-        String sql = "SELECT MAX(id) FROM " + tableName;
-        try (PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-        }
-        return null;
-    }
-
     public Optional<Usuario> findById(Integer id) {
         String sql = """
             SELECT u.id, u.nome, u.email, u.telefone, u.endereco_id, u.senha, u.is_defesa_civil,
@@ -137,36 +124,57 @@ public class UsuarioRepository {
         }
     }
 
-    public List<Usuario> findAll() {
+    public List<Usuario> findPage(PageRequest page) {
         String sql = """
             SELECT u.id, u.nome, u.email, u.telefone, u.endereco_id, u.senha, u.is_defesa_civil,
-                   u.created_at, u.updated_at, u.deleted_at
+                   u.created_at, u.updated_at, u.deleted_at,
+                   %s
             FROM gs_usuario u
+            LEFT JOIN gs_endereco e ON e.id = u.endereco_id AND e.deleted_at IS NULL
             WHERE u.deleted_at IS NULL
-            ORDER BY u.id
-            """;
+            """.formatted(EnderecoRepository.JOIN_COLUMNS) + KeysetPagination.clause(page, "u.");
 
         List<Usuario> usuarios = new ArrayList<>();
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                Usuario usuario = mapResultSetToUsuario(rs);
+            KeysetPagination.bind(stmt, 1, page);
 
-                Integer enderecoId = rs.getInt("endereco_id");
-                if (enderecoId != null && !rs.wasNull()) {
-                    Optional<Endereco> endereco = enderecoRepository.findById(enderecoId);
-                    endereco.ifPresent(usuario::setEndereco);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Usuario usuario = mapResultSetToUsuario(rs);
+                    usuario.setEndereco(EnderecoRepository.mapJoinedEndereco(rs));
+                    usuarios.add(usuario);
                 }
-
-                usuarios.add(usuario);
             }
 
             return usuarios;
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao buscar todos os usuários", e);
+            throw new RuntimeException("Erro ao buscar usuários", e);
+        }
+    }
+
+    public StreamingQuery<Usuario> streamAll() {
+        String sql = """
+            SELECT u.id, u.nome, u.email, u.telefone, u.endereco_id, u.is_defesa_civil,
+                   u.created_at, u.updated_at, u.deleted_at,
+                   %s
+            FROM gs_usuario u
+            LEFT JOIN gs_endereco e ON e.id = u.endereco_id AND e.deleted_at IS NULL
+            WHERE u.deleted_at IS NULL
+            ORDER BY u.id
+            """.formatted(EnderecoRepository.JOIN_COLUMNS);
+
+        try {
+            // Exportação não leva o hash da senha.
+            return StreamingQuery.abrir(dataSource, sql, exportFetchSize, rs -> {
+                Usuario usuario = mapUsuarioSemSenha(rs);
+                usuario.setEndereco(EnderecoRepository.mapJoinedEndereco(rs));
+                return usuario;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao exportar usuários", e);
         }
     }
 
@@ -178,7 +186,7 @@ public class UsuarioRepository {
 
             if (usuario.getEndereco() != null) {
                 if (usuario.getEndereco().getId() != null) {
-                    enderecoRepository.update(usuario.getEndereco());
+                    enderecoRepository.updateOrCopy(usuario.getEndereco());
                 } else {
                     Endereco savedEndereco = enderecoRepository.save(usuario.getEndereco());
                     usuario.setEndereco(savedEndereco);
@@ -211,6 +219,7 @@ public class UsuarioRepository {
             }
 
             conn.commit();
+            usuarioAlterado.fire(new UsuarioAlterado(usuario.getId()));
             return usuario;
 
         } catch (SQLException e) {
@@ -234,6 +243,26 @@ public class UsuarioRepository {
         }
     }
 
+    public boolean atualizarSenha(Integer id, String senhaAtual, String novaSenha) {
+        String sql = """
+            UPDATE gs_usuario
+            SET senha = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND senha = ? AND deleted_at IS NULL
+            """;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, novaSenha);
+            stmt.setInt(2, id);
+            stmt.setString(3, senhaAtual);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao atualizar senha do usuário", e);
+        }
+    }
+
     public void delete(Integer id) {
         String sql = """
             UPDATE gs_usuario 
@@ -253,11 +282,49 @@ public class UsuarioRepository {
             if (rowsAffected == 0) {
                 throw new RuntimeException("Usuário não encontrado para exclusão");
             }
+
+            usuarioAlterado.fire(new UsuarioAlterado(id));
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao excluir usuário", e);
         }
     }
 
+    Optional<Integer> findBairroId(Connection conn, Integer usuarioId) throws SQLException {
+        String sql = """
+            SELECT e.bairro_id
+            FROM gs_usuario u
+            INNER JOIN gs_endereco e ON e.id = u.endereco_id AND e.deleted_at IS NULL
+            WHERE u.id = ? AND u.deleted_at IS NULL AND e.bairro_id IS NOT NULL
+            """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getInt("bairro_id")) : Optional.empty();
+            }
+        }
+    }
+
+    void forEachMorador(Connection conn, BiConsumer<Integer, Integer> consumer) throws SQLException {
+        String sql = """
+            SELECT u.id, e.bairro_id
+            FROM gs_usuario u
+            INNER JOIN gs_endereco e ON e.id = u.endereco_id AND e.deleted_at IS NULL
+            WHERE u.deleted_at IS NULL AND e.bairro_id IS NOT NULL
+            """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setFetchSize(exportFetchSize);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt("id"), rs.getInt("bairro_id"));
+                }
+            }
+        }
+    }
+
     public Optional<Usuario> findByEmail(String email) {
         String sql = """
             SELECT u.id, u.nome, u.email, u.telefone, u.endereco_id, u.senha, u.is_defesa_civil,
@@ -292,12 +359,17 @@ public class UsuarioRepository {
     }
 
     private Usuario mapResultSetToUsuario(ResultSet rs) throws SQLException {
+        Usuario usuario = mapUsuarioSemSenha(rs);
+        usuario.setSenha(rs.getString("senha"));
+        return usuario;
+    }
+
+    private Usuario mapUsuarioSemSenha(ResultSet rs) throws SQLException {
         Usuario usuario = new Usuario();
         usuario.setId(rs.getInt("id"));
         usuario.setNome(rs.getString("nome"));
         usuario.setEmail(rs.getString("email"));
         usuario.setTelefone(rs.getString("telefone"));
-        usuario.setSenha(rs.getString("senha"));
         usuario.setDefesaCivil(rs.getInt("is_defesa_civil") == 1);
 
         Timestamp createdAt = rs.getTimestamp("created_at");
@@ -0,0 +1,68 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.repositories.VerificacaoEventoRepository.EstatisticasVerificacao;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+@ApplicationScoped
+public class VerificacaoEventoReactiveRepository {
+
+    @Inject
+    LeituraReativa leitura;
+
+    @Inject
+    VerificacaoEventoRepository verificacaoRepository;
+
+    public Uni<EstatisticasVerificacao> getEstatisticasAlagamento(Integer alagamentoId) {
+        String sql = """
+            SELECT 
+                COUNT(*) as total_verificacoes,
+                SUM(CASE WHEN confirmacao = 1 THEN 1 ELSE 0 END) as confirmacoes,
+                SUM(CASE WHEN confirmacao = 0 THEN 1 ELSE 0 END) as negacoes
+            FROM gs_verificacao_evento 
+            WHERE alagamento_id = ? AND deleted_at IS NULL
+            """;
+
+        return leitura.executar(
+                pool -> pool.preparedQuery(sql)
+                        .execute(Tuple.of(alagamentoId))
+                        .map(this::mapEstatisticas),
+                () -> verificacaoRepository.getEstatisticasAlagamento(alagamentoId));
+    }
+
+    public Uni<EstatisticasVerificacao> getEstatisticasDeslizamento(Integer deslizamentoId) {
+        String sql = """
+            SELECT 
+                COUNT(*) as total_verificacoes,
+                SUM(CASE WHEN confirmacao = 1 THEN 1 ELSE 0 END) as confirmacoes,
+                SUM(CASE WHEN confirmacao = 0 THEN 1 ELSE 0 END) as negacoes
+            FROM gs_verificacao_evento 
+            WHERE deslizamento_id = ? AND deleted_at IS NULL
+            """;
+
+        return leitura.executar(
+                pool -> pool.preparedQuery(sql)
+                        .execute(Tuple.of(deslizamentoId))
+                        .map(this::mapEstatisticas),
+                () -> verificacaoRepository.getEstatisticasDeslizamento(deslizamentoId));
+    }
+
+    private EstatisticasVerificacao mapEstatisticas(RowSet<Row> rows) {
+        RowIterator<Row> iterator = rows.iterator();
+        if (!iterator.hasNext()) {
+            return new EstatisticasVerificacao(0, 0, 0);
+        }
+
+        Row row = iterator.next();
+        return new EstatisticasVerificacao(
+                LeituraReativa.inteiro(row, "total_verificacoes"),
+                LeituraReativa.inteiro(row, "confirmacoes"),
+                LeituraReativa.inteiro(row, "negacoes")
+        );
+    }
+}
@@ -1,6 +1,8 @@
 package com.climaticrisks.repositories;
 
 import com.climaticrisks.models.VerificacaoEvento;
+import com.climaticrisks.requests.PageRequest;
+import com.climaticrisks.metrics.QueryMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import javax.sql.DataSource;
@@ -9,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+@QueryMetrics
 @ApplicationScoped
 public class VerificacaoEventoRepository {
 
@@ -22,7 +25,7 @@ public class VerificacaoEventoRepository {
             """;
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = GeneratedKeys.prepareInsert(conn, sql)) {
 
             stmt.setInt(1, verificacao.getUsuarioId());
 
@@ -40,25 +43,7 @@ public class VerificacaoEventoRepository {
 
             stmt.setInt(4, verificacao.getConfirmacao() != null && verificacao.getConfirmacao() ? 1 : 0);
 
-            int rowsAffected = stmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                String selectSql = """
-                    SELECT id FROM gs_verificacao_evento 
-                    WHERE usuario_id = ? AND created_at = (SELECT MAX(created_at) FROM gs_verificacao_evento WHERE usuario_id = ?)
-                    """;
-
-                try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-                    selectStmt.setInt(1, verificacao.getUsuarioId());
-                    selectStmt.setInt(2, verificacao.getUsuarioId());
-
-                    try (ResultSet rs = selectStmt.executeQuery()) {
-                        if (rs.next()) {
-                            verificacao.setId(rs.getInt("id"));
-                        }
-                    }
-                }
-            }
+            verificacao.setId(GeneratedKeys.executeInsert(stmt));
 
             return verificacao;
 
@@ -280,28 +265,30 @@ public class VerificacaoEventoRepository {
         }
     }
 
-    public List<VerificacaoEvento> findAll() {
+    public List<VerificacaoEvento> findPage(PageRequest page) {
         String sql = """
             SELECT id, usuario_id, alagamento_id, deslizamento_id, confirmacao,
                    created_at, updated_at, deleted_at
-            FROM gs_verificacao_evento 
+            FROM gs_verificacao_evento
             WHERE deleted_at IS NULL
-            ORDER BY created_at DESC
-            """;
+            """ + KeysetPagination.clause(page, "");
 
         List<VerificacaoEvento> verificacoes = new ArrayList<>();
 
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                verificacoes.add(mapResultSetToVerificacao(rs));
+            KeysetPagination.bind(stmt, 1, page);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    verificacoes.add(mapResultSetToVerificacao(rs));
+                }
             }
 
             return verificacoes;
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao buscar todas as verificações", e);
+            throw new RuntimeException("Erro ao buscar verificações", e);
         }
     }
 
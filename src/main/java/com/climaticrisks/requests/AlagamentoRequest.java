@@ -4,7 +4,7 @@ import com.climaticrisks.models.Endereco;
 
 import java.time.LocalDateTime;
 
-public class AlagamentoRequest {
+public class AlagamentoRequest implements EventoRequest {
     private Endereco endereco;
     private String descricao;
     private LocalDateTime dataOcorrencia;
@@ -4,7 +4,7 @@ import com.climaticrisks.models.Endereco;
 
 import java.time.LocalDateTime;
 
-public class DeslizamentoRequest {
+public class DeslizamentoRequest implements EventoRequest {
     private Endereco endereco;
     private String descricao;
     private LocalDateTime dataOcorrencia;
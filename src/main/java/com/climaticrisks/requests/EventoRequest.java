@@ -0,0 +1,10 @@
+package com.climaticrisks.requests;
+
+import com.climaticrisks.models.Endereco;
+import java.time.LocalDateTime;
+
+public interface EventoRequest {
+    Endereco getEndereco();
+    String getDescricao();
+    LocalDateTime getDataOcorrencia();
+}
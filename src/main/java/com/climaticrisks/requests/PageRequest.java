@@ -0,0 +1,58 @@
+package com.climaticrisks.requests;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public class PageRequest {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final LocalDateTime afterCreatedAt;
+    private final Integer afterId;
+    private final int limit;
+
+    private PageRequest(LocalDateTime afterCreatedAt, Integer afterId, int limit) {
+        this.afterCreatedAt = afterCreatedAt;
+        this.afterId = afterId;
+        this.limit = limit;
+    }
+
+    public static PageRequest of(String after, Integer limit) {
+        int pageLimit = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageLimit < 1 || pageLimit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_LIMIT);
+        }
+
+        if (after == null || after.isBlank()) {
+            return new PageRequest(null, null, pageLimit);
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after.trim()), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(decoded.substring(0, separator));
+            Integer id = Integer.valueOf(decoded.substring(separator + 1));
+            return new PageRequest(createdAt, id, pageLimit);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public static String encodeCursor(LocalDateTime createdAt, Integer id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean hasCursor() { return afterCreatedAt != null && afterId != null; }
+
+    public LocalDateTime getAfterCreatedAt() { return afterCreatedAt; }
+
+    public Integer getAfterId() { return afterId; }
+
+    public int getLimit() { return limit; }
+}
@@ -0,0 +1,19 @@
+package com.climaticrisks.responses;
+
+import java.util.List;
+
+public class AlcanceAlertaResponse {
+    private List<String> bairros;
+    private int usuarios;
+
+    public AlcanceAlertaResponse(List<String> bairros, int usuarios) {
+        this.bairros = bairros;
+        this.usuarios = usuarios;
+    }
+
+    public List<String> getBairros() { return bairros; }
+    public void setBairros(List<String> bairros) { this.bairros = bairros; }
+
+    public int getUsuarios() { return usuarios; }
+    public void setUsuarios(int usuarios) { this.usuarios = usuarios; }
+}
@@ -0,0 +1,22 @@
+package com.climaticrisks.responses;
+
+public class CacheStatsResponse {
+    private long hits;
+    private long misses;
+    private long invalidacoes;
+
+    public CacheStatsResponse(long hits, long misses, long invalidacoes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.invalidacoes = invalidacoes;
+    }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getInvalidacoes() { return invalidacoes; }
+    public void setInvalidacoes(long invalidacoes) { this.invalidacoes = invalidacoes; }
+}
@@ -0,0 +1,46 @@
+package com.climaticrisks.responses;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+public final class JsonArrayStream {
+
+    public interface Source<T> extends AutoCloseable {
+        void forEach(Consumer<? super T> consumer);
+
+        @Override
+        void close();
+    }
+
+    private JsonArrayStream() {
+    }
+
+    public static <T> StreamingOutput of(ObjectMapper objectMapper, Source<T> source) {
+        return output -> {
+            try (source) {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+                generator.writeStartArray();
+                source.forEach(item -> {
+                    try {
+                        generator.writeObject(item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.close();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                // O gerador não é fechado: fechar escreveria o "]" e um array truncado pareceria completo.
+                // A exceção aborta a resposta, e o cliente vê a transferência interrompida.
+                throw new IOException("Exportação interrompida: " + e.getMessage(), e);
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.climaticrisks.responses;
+
+public class LoteLinhaResponse {
+    private int linha;
+    private String status;
+    private Integer id;
+    private Integer enderecoId;
+    private String erro;
+
+    public LoteLinhaResponse(int linha, String status, Integer id, Integer enderecoId, String erro) {
+        this.linha = linha;
+        this.status = status;
+        this.id = id;
+        this.enderecoId = enderecoId;
+        this.erro = erro;
+    }
+
+    public static LoteLinhaResponse criado(int linha, Integer id, Integer enderecoId) {
+        return new LoteLinhaResponse(linha, "criado", id, enderecoId, null);
+    }
+
+    public static LoteLinhaResponse erro(int linha, String erro) {
+        return new LoteLinhaResponse(linha, "erro", null, null, erro);
+    }
+
+    public int getLinha() { return linha; }
+    public void setLinha(int linha) { this.linha = linha; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Integer getEnderecoId() { return enderecoId; }
+    public void setEnderecoId(Integer enderecoId) { this.enderecoId = enderecoId; }
+
+    public String getErro() { return erro; }
+    public void setErro(String erro) { this.erro = erro; }
+}
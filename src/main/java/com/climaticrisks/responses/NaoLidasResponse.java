@@ -0,0 +1,12 @@
+package com.climaticrisks.responses;
+
+public class NaoLidasResponse {
+    private int total;
+
+    public NaoLidasResponse(int total) {
+        this.total = total;
+    }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+}
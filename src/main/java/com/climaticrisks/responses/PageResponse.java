@@ -0,0 +1,32 @@
+package com.climaticrisks.responses;
+
+import com.climaticrisks.models.BaseModel;
+import com.climaticrisks.requests.PageRequest;
+
+import java.util.List;
+
+public class PageResponse<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public PageResponse(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T extends BaseModel> PageResponse<T> of(List<T> rows, PageRequest page) {
+        if (rows.size() <= page.getLimit()) {
+            return new PageResponse<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, page.getLimit());
+        T last = items.get(items.size() - 1);
+        return new PageResponse<>(items, PageRequest.encodeCursor(last.getCreatedAt(), last.getId()));
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,17 @@
+package com.climaticrisks.responses;
+
+public class RecalculoHistoricoResponse {
+    private String message;
+    private Integer registrosAlterados;
+
+    public RecalculoHistoricoResponse(String message, Integer registrosAlterados) {
+        this.message = message;
+        this.registrosAlterados = registrosAlterados;
+    }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Integer getRegistrosAlterados() { return registrosAlterados; }
+    public void setRegistrosAlterados(Integer registrosAlterados) { this.registrosAlterados = registrosAlterados; }
+}
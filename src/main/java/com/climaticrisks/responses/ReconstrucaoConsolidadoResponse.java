@@ -0,0 +1,17 @@
+package com.climaticrisks.responses;
+
+public class ReconstrucaoConsolidadoResponse {
+    private String message;
+    private Integer linhasGeradas;
+
+    public ReconstrucaoConsolidadoResponse(String message, Integer linhasGeradas) {
+        this.message = message;
+        this.linhasGeradas = linhasGeradas;
+    }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Integer getLinhasGeradas() { return linhasGeradas; }
+    public void setLinhasGeradas(Integer linhasGeradas) { this.linhasGeradas = linhasGeradas; }
+}
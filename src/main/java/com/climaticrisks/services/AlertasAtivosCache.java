@@ -0,0 +1,121 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.events.AlertaDefesaCivilAlterado;
+import com.climaticrisks.models.AlertaDefesaCivil;
+import com.climaticrisks.repositories.AlertaDefesaCivilReactiveRepository;
+import com.climaticrisks.repositories.AlertaDefesaCivilRepository;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@ApplicationScoped
+public class AlertasAtivosCache {
+
+    @Inject
+    AlertaDefesaCivilRepository alertaRepository;
+
+    @Inject
+    AlertaDefesaCivilReactiveRepository alertaReactiveRepository;
+
+    @ConfigProperty(name = "climaticrisks.cache.alertas-ativos.ttl", defaultValue = "30s")
+    Duration ttl;
+
+    private final AtomicLong versao = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidacoes = new LongAdder();
+
+    private final AtomicReference<CompletableFuture<List<AlertaDefesaCivil>>> cargaEmAndamento = new AtomicReference<>();
+
+    // A carga bloqueante faz JDBC sob o lock; synchronized fixaria a virtual thread no carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public List<AlertaDefesaCivil> getAtivos() {
+        Snapshot atual = snapshot;
+        if (isValido(atual)) {
+            hits.increment();
+            return atual.alertas();
+        }
+
+        lock.lock();
+        try {
+            atual = snapshot;
+            if (isValido(atual)) {
+                hits.increment();
+                return atual.alertas();
+            }
+
+            misses.increment();
+            // A versão é lida antes da consulta: se um alerta mudar durante a carga,
+            // o snapshot já nasce desatualizado e a próxima leitura recarrega.
+            long versaoCarga = versao.get();
+            List<AlertaDefesaCivil> alertas = List.copyOf(alertaRepository.findAtivos());
+            snapshot = new Snapshot(versaoCarga, System.nanoTime(), alertas);
+            return alertas;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Uni<List<AlertaDefesaCivil>> getAtivosAsync() {
+        Snapshot atual = snapshot;
+        if (isValido(atual)) {
+            hits.increment();
+            return Uni.createFrom().item(atual.alertas());
+        }
+
+        // Sem bloquear o event loop: quem chega durante uma carga espera a mesma consulta em vez de abrir outra.
+        CompletableFuture<List<AlertaDefesaCivil>> nova = new CompletableFuture<>();
+        CompletableFuture<List<AlertaDefesaCivil>> carga = cargaEmAndamento.compareAndExchange(null, nova);
+        if (carga == null) {
+            carga = nova;
+            misses.increment();
+            long versaoCarga = versao.get();
+            alertaReactiveRepository.findAtivos().subscribe().with(
+                    alertas -> {
+                        List<AlertaDefesaCivil> copia = List.copyOf(alertas);
+                        snapshot = new Snapshot(versaoCarga, System.nanoTime(), copia);
+                        cargaEmAndamento.set(null);
+                        nova.complete(copia);
+                    },
+                    falha -> {
+                        cargaEmAndamento.set(null);
+                        nova.completeExceptionally(falha);
+                    });
+        }
+
+        return Uni.createFrom().completionStage(carga.copy());
+    }
+
+    void onAlertaAlterado(@Observes AlertaDefesaCivilAlterado evento) {
+        versao.incrementAndGet();
+        invalidacoes.increment();
+    }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    public long getInvalidacoes() { return invalidacoes.sum(); }
+
+    private boolean isValido(Snapshot atual) {
+        return atual != null
+                && atual.versao() == versao.get()
+                && System.nanoTime() - atual.carregadoEm() < ttl.toNanos();
+    }
+
+    private record Snapshot(long versao, long carregadoEm, List<AlertaDefesaCivil> alertas) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.events.AlertaDefesaCivilAlterado;
+import com.climaticrisks.models.AlertaDefesaCivil;
+import com.climaticrisks.repositories.BairroRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+@ApplicationScoped
+public class AlertasStream {
+
+    private static final Logger LOG = Logger.getLogger(AlertasStream.class);
+
+    static final String TIPO_RESSINCRONIZAR = "ressincronizar";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "climaticrisks.alertas.stream.replay", defaultValue = "256")
+    int tamanhoReplay;
+
+    @ConfigProperty(name = "climaticrisks.alertas.stream.fila", defaultValue = "256")
+    int tamanhoFila;
+
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+
+    private final List<MultiEmitter<? super Evento>> assinantes = new CopyOnWriteArrayList<>();
+
+    // Protegidos pelo lock do bean.
+    private final ArrayDeque<Evento> replay = new ArrayDeque<>();
+    private long sequencia;
+
+    public record Evento(String id, String tipo, String dados, Set<String> bairros) {
+
+        boolean afeta(Set<String> filtro) {
+            return filtro.isEmpty() || bairros.isEmpty() || bairros.stream().anyMatch(filtro::contains);
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        Gauge.builder("climaticrisks.alertas.stream.assinantes", assinantes, List::size)
+                .description("Conexões abertas em /alertas/stream")
+                .register(registry);
+    }
+
+    void onAlertaAlterado(@Observes AlertaDefesaCivilAlterado evento) {
+        AlertaDefesaCivil alerta = evento.getAlerta();
+        if (alerta == null) {
+            publicar(TIPO_RESSINCRONIZAR, "{}", Set.of());
+            return;
+        }
+
+        // Observador não lança: os demais (cache e índice) precisam rodar mesmo se o push falhar.
+        String dados;
+        try {
+            dados = objectMapper.writeValueAsString(alerta);
+        } catch (JsonProcessingException e) {
+            LOG.warnf(e, "Falha ao serializar o alerta %d para o stream", evento.getAlertaId());
+            publicar(TIPO_RESSINCRONIZAR, "{}", Set.of());
+            return;
+        }
+
+        publicar(evento.getTipo().name().toLowerCase(Locale.ROOT), dados, bairrosDe(alerta.getBairrosAfetados()));
+    }
+
+    public Multi<Evento> assinar(Collection<String> bairros, String ultimoEventoId) {
+        Set<String> filtro = bairros == null ? Set.of() : bairros.stream()
+                .map(BairroRepository::chave)
+                .filter(chave -> !chave.isEmpty())
+                .collect(Collectors.toSet());
+
+        return Multi.createFrom().<Evento>emitter(emitter -> {
+                    synchronized (this) {
+                        if (ultimoEventoId != null && !ultimoEventoId.isBlank()) {
+                            reenviar(emitter, ultimoEventoId.trim());
+                        }
+                        assinantes.add(emitter);
+                    }
+                    emitter.onTermination(() -> assinantes.remove(emitter));
+                }, BackPressureStrategy.ERROR)
+                .filter(evento -> evento.afeta(filtro))
+                .onOverflow().buffer(Math.max(tamanhoFila, tamanhoReplay));
+    }
+
+    private synchronized void publicar(String tipo, String dados, Set<String> bairros) {
+        Evento evento = new Evento(instancia + "-" + (++sequencia), tipo, dados, bairros);
+
+        replay.addLast(evento);
+        if (replay.size() > tamanhoReplay) {
+            replay.removeFirst();
+        }
+
+        for (MultiEmitter<? super Evento> emitter : assinantes) {
+            emitter.emit(evento);
+        }
+    }
+
+    // Chamado com o lock do bean.
+    private void reenviar(MultiEmitter<? super Evento> emitter, String ultimoEventoId) {
+        long ultimaSequencia = sequenciaDe(ultimoEventoId);
+        Evento maisAntigo = replay.peekFirst();
+
+        boolean cobre = ultimaSequencia >= 0
+                && ultimaSequencia <= sequencia
+                && (maisAntigo == null ? ultimaSequencia == sequencia : ultimaSequencia >= sequenciaDe(maisAntigo.id()) - 1);
+        if (!cobre) {
+            Evento ultimo = replay.peekLast();
+            emitter.emit(new Evento(ultimo != null ? ultimo.id() : null, TIPO_RESSINCRONIZAR, "{}", Set.of()));
+            return;
+        }
+
+        for (Evento evento : replay) {
+            if (sequenciaDe(evento.id()) > ultimaSequencia) {
+                emitter.emit(evento);
+            }
+        }
+    }
+
+    private long sequenciaDe(String eventoId) {
+        int separador = eventoId.lastIndexOf('-');
+        if (separador < 0 || !eventoId.substring(0, separador).equals(instancia)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventoId.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Set<String> bairrosDe(String bairrosAfetados) {
+        return BairroRepository.separar(bairrosAfetados).stream()
+                .map(BairroRepository::chave)
+                .filter(chave -> !chave.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
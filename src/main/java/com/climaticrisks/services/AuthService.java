@@ -2,34 +2,50 @@ package com.climaticrisks.services;
 
 import com.climaticrisks.models.Usuario;
 import com.climaticrisks.repositories.UsuarioRepository;
+import com.climaticrisks.services.SenhaService.ResultadoVerificacao;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import org.jboss.logging.Logger;
 import java.util.Optional;
 
 @ApplicationScoped
 public class AuthService {
 
+    private static final Logger LOG = Logger.getLogger(AuthService.class);
+
     @Inject
     UsuarioRepository usuarioRepository;
 
     @Inject
     JwtService jwtService;
 
+    @Inject
+    SenhaService senhaService;
+
     public AuthResult authenticate(String email, String senha) {
         Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
 
         if (usuarioOpt.isEmpty()) {
+            senhaService.verificarFicticio(senha);
             return new AuthResult(false, "Credenciais inválidas", null, null);
         }
 
         Usuario usuario = usuarioOpt.get();
 
-        if (!verificarSenha(senha, usuario.getSenha())) {
+        ResultadoVerificacao verificacao = senhaService.verificarNoPool(senha, usuario.getSenha());
+        if (!verificacao.isValida()) {
             return new AuthResult(false, "Credenciais inválidas", null, null);
         }
 
+        if (verificacao.precisaRehash()) {
+            try {
+                usuarioRepository.atualizarSenha(usuario.getId(), usuario.getSenha(), verificacao.getNovoHash());
+            } catch (RuntimeException e) {
+                // O hash anterior continua válido; a migração é refeita no próximo login.
+                LOG.warnf(e, "Falha ao migrar o hash de senha do usuário %d", usuario.getId());
+            }
+        }
+
         String token = jwtService.generateToken(
                 usuario.getId().toString(),
                 usuario.getEmail(),
@@ -41,32 +57,8 @@ public class AuthService {
         return new AuthResult(true, "Login realizado com sucesso", token, refreshToken);
     }
 
-    private boolean verificarSenha(String senhaPlana, String senhaHash) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashedPassword = md.digest(senhaPlana.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashedPassword) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString().equals(senhaHash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Erro ao verificar senha", e);
-        }
-    }
-
     public String hashSenha(String senhaPlana) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashedPassword = md.digest(senhaPlana.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashedPassword) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Erro ao gerar hash da senha", e);
-        }
+        return senhaService.hash(senhaPlana);
     }
 
     public static class AuthResult {
@@ -0,0 +1,48 @@
+package com.climaticrisks.services;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import java.util.Optional;
+
+@RequestScoped
+public class CurrentUser {
+
+    @Inject
+    JsonWebToken jwt;
+
+    @Inject
+    PerfilUsuarioCache perfilUsuarioCache;
+
+    private Integer id;
+    private TokenInvalidoException idInvalido;
+    private Optional<PerfilUsuario> perfil;
+
+    public Integer getId() {
+        if (id == null && idInvalido == null) {
+            try {
+                id = Integer.parseInt(jwt.getClaim("userId"));
+            } catch (NumberFormatException e) {
+                idInvalido = new TokenInvalidoException("Claim userId inválida no token", e);
+            }
+        }
+
+        if (idInvalido != null) {
+            throw idInvalido;
+        }
+        return id;
+    }
+
+    public Optional<PerfilUsuario> getPerfil() {
+        if (perfil == null) {
+            perfil = perfilUsuarioCache.get(getId());
+        }
+        return perfil;
+    }
+
+    // O token não carrega o papel: ele vem do perfil, para que revogar a Defesa Civil valha antes de o token expirar.
+    public boolean isDefesaCivil() {
+        return getPerfil().map(PerfilUsuario::isDefesaCivil).orElse(false);
+    }
+}
@@ -0,0 +1,188 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.models.Alagamento;
+import com.climaticrisks.models.Deslizamento;
+import com.climaticrisks.models.Endereco;
+import com.climaticrisks.repositories.AlagamentoRepository;
+import com.climaticrisks.repositories.DeslizamentoRepository;
+import com.climaticrisks.requests.AlagamentoRequest;
+import com.climaticrisks.requests.DeslizamentoRequest;
+import com.climaticrisks.requests.EventoRequest;
+import com.climaticrisks.responses.LoteLinhaResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@ApplicationScoped
+public class IngestaoLoteService {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AlagamentoRepository alagamentoRepository;
+
+    @Inject
+    DeslizamentoRepository deslizamentoRepository;
+
+    @ConfigProperty(name = "climaticrisks.lote.tamanho-chunk", defaultValue = "500")
+    int tamanhoChunk;
+
+    @FunctionalInterface
+    private interface GravadorLote {
+        List<Integer> gravar(List<EventoRequest> itens);
+    }
+
+    private record Linha(int numero, EventoRequest item, String erro) {
+    }
+
+    public StreamingOutput importarAlagamentos(InputStream entrada, Integer usuarioId) {
+        return importar(entrada, AlagamentoRequest.class, itens -> gravarAlagamentos(usuarioId, itens));
+    }
+
+    public StreamingOutput importarDeslizamentos(InputStream entrada, Integer usuarioId) {
+        return importar(entrada, DeslizamentoRequest.class, itens -> gravarDeslizamentos(usuarioId, itens));
+    }
+
+    private StreamingOutput importar(InputStream entrada, Class<? extends EventoRequest> tipo, GravadorLote gravador) {
+        // A entrada é lida linha a linha e gravada em chunks: memória limitada ao chunk, não ao tamanho do lote.
+        return output -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+            List<Linha> chunk = new ArrayList<>(tamanhoChunk);
+            int numero = 0;
+
+            String conteudo;
+            while ((conteudo = reader.readLine()) != null) {
+                numero++;
+                if (conteudo.isBlank()) {
+                    continue;
+                }
+
+                chunk.add(lerLinha(numero, conteudo, tipo));
+                if (chunk.size() == tamanhoChunk) {
+                    gravarChunk(output, gravador, chunk);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                gravarChunk(output, gravador, chunk);
+            }
+        };
+    }
+
+    private Linha lerLinha(int numero, String conteudo, Class<? extends EventoRequest> tipo) {
+        EventoRequest item;
+        try {
+            item = objectMapper.readValue(conteudo, tipo);
+        } catch (JsonProcessingException e) {
+            return new Linha(numero, null, "JSON inválido: " + e.getOriginalMessage());
+        }
+
+        Endereco endereco = item.getEndereco();
+        if (endereco == null) {
+            return new Linha(numero, null, "endereco não pode ser nulo");
+        }
+        if (endereco.getLogradouro() == null || endereco.getLogradouro().trim().isEmpty()) {
+            return new Linha(numero, null, "logradouro não pode ser vazio");
+        }
+        if (endereco.getBairro() == null || endereco.getBairro().trim().isEmpty()) {
+            return new Linha(numero, null, "bairro não pode ser vazio");
+        }
+
+        return new Linha(numero, item, null);
+    }
+
+    private void gravarChunk(OutputStream output, GravadorLote gravador, List<Linha> chunk) throws IOException {
+        List<Linha> validas = chunk.stream().filter(linha -> linha.erro() == null).toList();
+
+        List<LoteLinhaResponse> gravadas = gravar(gravador, validas);
+
+        int indice = 0;
+        for (Linha linha : chunk) {
+            LoteLinhaResponse resultado = linha.erro() != null
+                    ? LoteLinhaResponse.erro(linha.numero(), linha.erro())
+                    : gravadas.get(indice++);
+            output.write(objectMapper.writeValueAsBytes(resultado));
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    private List<LoteLinhaResponse> gravar(GravadorLote gravador, List<Linha> linhas) {
+        if (linhas.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            List<Integer> ids = gravador.gravar(linhas.stream().map(Linha::item).toList());
+
+            List<LoteLinhaResponse> resultados = new ArrayList<>(linhas.size());
+            for (int i = 0; i < linhas.size(); i++) {
+                Linha linha = linhas.get(i);
+                resultados.add(LoteLinhaResponse.criado(linha.numero(), ids.get(i), linha.item().getEndereco().getId()));
+            }
+            return resultados;
+        } catch (RuntimeException e) {
+            if (linhas.size() == 1) {
+                return List.of(LoteLinhaResponse.erro(linhas.get(0).numero(), e.getMessage()));
+            }
+
+            // Uma linha rejeitada pelo banco desfaz o chunk inteiro; regrava uma a uma para isolar as falhas.
+            List<LoteLinhaResponse> resultados = new ArrayList<>(linhas.size());
+            for (Linha linha : linhas) {
+                resultados.addAll(gravar(gravador, List.of(linha)));
+            }
+            return resultados;
+        }
+    }
+
+    private List<Integer> gravarAlagamentos(Integer usuarioId, List<EventoRequest> itens) {
+        List<Alagamento> alagamentos = new ArrayList<>(itens.size());
+        List<Endereco> enderecos = new ArrayList<>(itens.size());
+
+        for (EventoRequest item : itens) {
+            Alagamento alagamento = new Alagamento();
+            alagamento.setUsuarioId(usuarioId);
+            alagamento.setDescricao(item.getDescricao());
+            alagamento.setDataOcorrencia(item.getDataOcorrencia() != null ? item.getDataOcorrencia() : LocalDateTime.now());
+
+            alagamentos.add(alagamento);
+            enderecos.add(item.getEndereco());
+        }
+
+        alagamentoRepository.saveLote(alagamentos, enderecos);
+        return alagamentos.stream().map(Alagamento::getId).toList();
+    }
+
+    private List<Integer> gravarDeslizamentos(Integer usuarioId, List<EventoRequest> itens) {
+        List<Deslizamento> deslizamentos = new ArrayList<>(itens.size());
+        List<Endereco> enderecos = new ArrayList<>(itens.size());
+
+        for (EventoRequest item : itens) {
+            Deslizamento deslizamento = new Deslizamento();
+            deslizamento.setUsuarioId(usuarioId);
+            deslizamento.setDescricao(item.getDescricao());
+            deslizamento.setDataOcorrencia(item.getDataOcorrencia() != null ? item.getDataOcorrencia() : LocalDateTime.now());
+
+            deslizamentos.add(deslizamento);
+            enderecos.add(item.getEndereco());
+        }
+
+        deslizamentoRepository.saveLote(deslizamentos, enderecos);
+        return deslizamentos.stream().map(Deslizamento::getId).toList();
+    }
+}
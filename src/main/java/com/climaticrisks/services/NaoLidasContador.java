@@ -0,0 +1,170 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.events.NotificacoesCriadas;
+import com.climaticrisks.events.NotificacoesLidas;
+import com.climaticrisks.models.Notificacao;
+import com.climaticrisks.repositories.NotificacaoRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ApplicationScoped
+public class NaoLidasContador {
+
+    @Inject
+    NotificacaoRepository notificacaoRepository;
+
+    @ConfigProperty(name = "climaticrisks.cache.nao-lidas.reconciliacao", defaultValue = "5m")
+    Duration intervaloReconciliacao;
+
+    @ConfigProperty(name = "climaticrisks.cache.nao-lidas.max-entradas", defaultValue = "10000")
+    int maxEntradas;
+
+    // LRU em ordem de acesso, acessado sob o lock do próprio mapa.
+    private Map<Integer, Contador> contadores;
+
+    private Cancellable reconciliacao;
+
+    // Acessado sob o lock do próprio contador; uma contagem do banco só vale se a versão não mudou durante a consulta.
+    private static final class Contador {
+        int valor;
+        boolean carregado;
+        long versao;
+    }
+
+    @PostConstruct
+    void criarMapa() {
+        contadores = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Contador> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    void iniciar(@Observes StartupEvent evento) {
+        reconciliacao = Multi.createFrom().ticks().every(intervaloReconciliacao)
+                .onOverflow().drop()
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .subscribe().with(tick -> reconciliar());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (reconciliacao != null) {
+            reconciliacao.cancel();
+        }
+    }
+
+    public int get(Integer usuarioId) {
+        Contador contador;
+        synchronized (contadores) {
+            contador = contadores.computeIfAbsent(usuarioId, id -> new Contador());
+        }
+
+        long versao;
+        synchronized (contador) {
+            if (contador.carregado) {
+                return contador.valor;
+            }
+            versao = contador.versao;
+        }
+
+        int total = notificacaoRepository.countNaoLidasByUsuarioId(usuarioId);
+
+        synchronized (contador) {
+            if (contador.carregado) {
+                return contador.valor;
+            }
+            if (contador.versao == versao) {
+                contador.valor = total;
+                contador.carregado = true;
+            }
+            return total;
+        }
+    }
+
+    void onNotificacoesCriadas(@Observes NotificacoesCriadas evento) {
+        Map<Integer, Integer> porUsuario = new HashMap<>();
+        synchronized (contadores) {
+            if (contadores.isEmpty()) {
+                return;
+            }
+            for (Notificacao notificacao : evento.getNotificacoes()) {
+                if (contadores.containsKey(notificacao.getUsuarioId())) {
+                    porUsuario.merge(notificacao.getUsuarioId(), 1, Integer::sum);
+                }
+            }
+        }
+        porUsuario.forEach(this::ajustar);
+    }
+
+    void onNotificacoesLidas(@Observes NotificacoesLidas evento) {
+        ajustar(evento.getUsuarioId(), -evento.getQuantidade());
+    }
+
+    private void ajustar(Integer usuarioId, int delta) {
+        Contador contador;
+        synchronized (contadores) {
+            contador = contadores.get(usuarioId);
+        }
+        if (contador == null) {
+            return;
+        }
+
+        synchronized (contador) {
+            contador.versao++;
+            if (contador.carregado) {
+                contador.valor = Math.max(0, contador.valor + delta);
+            }
+        }
+    }
+
+    void reconciliar() {
+        Map<Integer, Contador> copia;
+        synchronized (contadores) {
+            copia = new HashMap<>(contadores);
+        }
+
+        Map<Integer, Long> versoes = new HashMap<>();
+        copia.forEach((usuarioId, contador) -> {
+            synchronized (contador) {
+                if (contador.carregado) {
+                    versoes.put(usuarioId, contador.versao);
+                }
+            }
+        });
+        if (versoes.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Integer> totais;
+        try {
+            totais = notificacaoRepository.countNaoLidasByUsuarioIds(versoes.keySet());
+        } catch (RuntimeException e) {
+            return;
+        }
+
+        versoes.forEach((usuarioId, versao) -> {
+            Contador contador = copia.get(usuarioId);
+            int total = totais.getOrDefault(usuarioId, 0);
+            synchronized (contador) {
+                if (contador.versao == versao) {
+                    contador.valor = total;
+                }
+            }
+        });
+    }
+}
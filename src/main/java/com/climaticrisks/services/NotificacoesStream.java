@@ -0,0 +1,184 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.events.NotificacoesCriadas;
+import com.climaticrisks.models.Notificacao;
+import com.climaticrisks.repositories.NotificacaoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ApplicationScoped
+public class NotificacoesStream {
+
+    static final String TIPO_NOTIFICACAO = "notificacao";
+    static final String TIPO_RESSINCRONIZAR = "ressincronizar";
+
+    @Inject
+    NotificacaoRepository notificacaoRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "climaticrisks.notificacoes.stream.fila", defaultValue = "64")
+    int tamanhoFila;
+
+    @ConfigProperty(name = "climaticrisks.notificacoes.stream.retomada", defaultValue = "100")
+    int limiteRetomada;
+
+    private final Map<Integer, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final AtomicInteger conexoes = new AtomicInteger();
+
+    public record Evento(String id, String tipo, String dados) {
+    }
+
+    @PostConstruct
+    void iniciar() {
+        Gauge.builder("climaticrisks.notificacoes.stream.assinantes", conexoes, AtomicInteger::get)
+                .description("Conexões abertas em /notificacoes/stream")
+                .register(registry);
+    }
+
+    void onNotificacoesCriadas(@Observes NotificacoesCriadas evento) {
+        if (assinantes.isEmpty()) {
+            return;
+        }
+
+        for (Notificacao notificacao : evento.getNotificacoes()) {
+            Set<Assinante> conectados = assinantes.get(notificacao.getUsuarioId());
+            if (conectados != null) {
+                for (Assinante assinante : conectados) {
+                    assinante.entregar(notificacao);
+                }
+            }
+        }
+    }
+
+    public Multi<Evento> assinar(Integer usuarioId, String ultimoEventoId) {
+        Integer ultimoId = idDe(ultimoEventoId);
+
+        return Multi.createFrom().<Evento>emitter(emitter -> {
+                    Assinante assinante = new Assinante(emitter, ultimoId != null);
+                    registrar(usuarioId, assinante);
+                    emitter.onTermination(() -> remover(usuarioId, assinante));
+
+                    // Registrar antes de consultar: o que chega durante a consulta fica retido.
+                    if (ultimoId != null) {
+                        retomar(usuarioId, ultimoId, assinante);
+                    }
+                }, BackPressureStrategy.ERROR)
+                .onOverflow().buffer(tamanhoFila);
+    }
+
+    private void retomar(Integer usuarioId, Integer ultimoId, Assinante assinante) {
+        Uni.createFrom().item(() -> notificacaoRepository.findByUsuarioIdAposId(usuarioId, ultimoId, limiteRetomada + 1))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .subscribe().with(
+                        perdidas -> {
+                            if (perdidas.size() > limiteRetomada) {
+                                assinante.concluirRetomada(List.of(), true);
+                            } else {
+                                assinante.concluirRetomada(perdidas, false);
+                            }
+                        },
+                        falha -> assinante.concluirRetomada(List.of(), true));
+    }
+
+    private void registrar(Integer usuarioId, Assinante assinante) {
+        assinantes.compute(usuarioId, (id, conectados) -> {
+            Set<Assinante> atual = conectados != null ? conectados : ConcurrentHashMap.newKeySet();
+            atual.add(assinante);
+            return atual;
+        });
+        conexoes.incrementAndGet();
+    }
+
+    private void remover(Integer usuarioId, Assinante assinante) {
+        assinantes.computeIfPresent(usuarioId, (id, conectados) -> {
+            conectados.remove(assinante);
+            return conectados.isEmpty() ? null : conectados;
+        });
+        conexoes.decrementAndGet();
+    }
+
+    private static Integer idDe(String ultimoEventoId) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(ultimoEventoId.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private final class Assinante {
+
+        private final MultiEmitter<? super Evento> emitter;
+
+        // Não nulo até a retomada terminar; acessado sob o lock do assinante.
+        private List<Notificacao> retidas;
+        private int maiorIdRetomado;
+
+        Assinante(MultiEmitter<? super Evento> emitter, boolean retomando) {
+            this.emitter = emitter;
+            this.retidas = retomando ? new ArrayList<>() : null;
+        }
+
+        synchronized void entregar(Notificacao notificacao) {
+            if (retidas != null) {
+                retidas.add(notificacao);
+            } else if (notificacao.getId() > maiorIdRetomado) {
+                enviar(notificacao);
+            }
+        }
+
+        synchronized void concluirRetomada(List<Notificacao> perdidas, boolean ressincronizar) {
+            if (ressincronizar) {
+                emitter.emit(new Evento(null, TIPO_RESSINCRONIZAR, "{}"));
+            }
+
+            for (Notificacao notificacao : perdidas) {
+                enviar(notificacao);
+                maiorIdRetomado = Math.max(maiorIdRetomado, notificacao.getId());
+            }
+
+            retidas.sort(Comparator.comparing(Notificacao::getId));
+            for (Notificacao notificacao : retidas) {
+                if (notificacao.getId() > maiorIdRetomado) {
+                    enviar(notificacao);
+                }
+            }
+            retidas = null;
+        }
+
+        private void enviar(Notificacao notificacao) {
+            try {
+                emitter.emit(new Evento(notificacao.getId().toString(), TIPO_NOTIFICACAO, objectMapper.writeValueAsString(notificacao)));
+            } catch (JsonProcessingException e) {
+                emitter.fail(new RuntimeException("Erro ao serializar notificação para o stream", e));
+            }
+        }
+    }
+}
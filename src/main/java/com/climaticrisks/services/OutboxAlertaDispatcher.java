@@ -0,0 +1,92 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.events.AlertaDefesaCivilAlterado;
+import com.climaticrisks.repositories.OutboxAlertaRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@ApplicationScoped
+public class OutboxAlertaDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(OutboxAlertaDispatcher.class);
+
+    @Inject
+    OutboxAlertaRepository outboxRepository;
+
+    @ConfigProperty(name = "climaticrisks.outbox.alertas.intervalo", defaultValue = "5s")
+    Duration intervalo;
+
+    @ConfigProperty(name = "climaticrisks.outbox.alertas.lote", defaultValue = "50")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "climaticrisks.outbox.alertas.espera-maxima", defaultValue = "10m")
+    Duration esperaMaxima;
+
+    @ConfigProperty(name = "climaticrisks.outbox.alertas.max-tentativas", defaultValue = "10")
+    int maxTentativas;
+
+    private final AtomicBoolean drenando = new AtomicBoolean();
+
+    private Cancellable agendamento;
+
+    void iniciar(@Observes StartupEvent evento) {
+        agendamento = Multi.createFrom().ticks().every(intervalo)
+                .onOverflow().drop()
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .subscribe().with(tick -> drenar());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendamento != null) {
+            agendamento.cancel();
+        }
+    }
+
+    // Alerta recém-gravado não espera o próximo tick; se já houver uma drenagem em curso, o tick seguinte o pega.
+    void onAlertaAlterado(@Observes AlertaDefesaCivilAlterado evento) {
+        if (evento.getTipo() == AlertaDefesaCivilAlterado.Tipo.CRIADO) {
+            Infrastructure.getDefaultWorkerPool().execute(this::drenar);
+        }
+    }
+
+    void drenar() {
+        if (!drenando.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<Integer> pendentes;
+            do {
+                pendentes = outboxRepository.findPendentes(tamanhoLote);
+                for (Integer id : pendentes) {
+                    try {
+                        outboxRepository.processar(id);
+                    } catch (RuntimeException e) {
+                        LOG.warnf(e, "Falha ao processar a outbox de alerta %d", id);
+                        if (outboxRepository.registrarFalha(id, e.getMessage(), intervalo, esperaMaxima, maxTentativas)) {
+                            LOG.errorf("Outbox de alerta %d descartada após %d tentativas", id, maxTentativas);
+                        }
+                    }
+                }
+            } while (pendentes.size() == tamanhoLote);
+        } catch (RuntimeException e) {
+            // Banco indisponível: as linhas continuam pendentes e a próxima rodada tenta de novo.
+            LOG.warnf(e, "Drenagem da outbox de alertas interrompida");
+        } finally {
+            drenando.set(false);
+        }
+    }
+}
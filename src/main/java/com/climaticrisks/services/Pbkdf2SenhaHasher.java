@@ -0,0 +1,90 @@
+package com.climaticrisks.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+@ApplicationScoped
+public class Pbkdf2SenhaHasher implements SenhaHasher {
+
+    static final String PREFIXO = "pbkdf2_sha256";
+
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final int TAMANHO_SALT = 16;
+    private static final int TAMANHO_HASH = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @ConfigProperty(name = "climaticrisks.senha.pbkdf2.iteracoes", defaultValue = "600000")
+    int iteracoes;
+
+    @Override
+    public String hash(String senhaPlana) {
+        byte[] salt = new byte[TAMANHO_SALT];
+        random.nextBytes(salt);
+
+        byte[] hash = derivar(senhaPlana, salt, iteracoes, TAMANHO_HASH);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIXO + "$" + iteracoes + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean suporta(String senhaHash) {
+        return senhaHash != null && senhaHash.startsWith(PREFIXO + "$");
+    }
+
+    @Override
+    public boolean verificar(String senhaPlana, String senhaHash) {
+        if (!suporta(senhaHash)) {
+            return false;
+        }
+
+        String[] partes = senhaHash.split("\\$");
+        if (partes.length != 4) {
+            return false;
+        }
+
+        try {
+            int iteracoesHash = Integer.parseInt(partes[1]);
+            byte[] salt = Base64.getDecoder().decode(partes[2]);
+            byte[] esperado = Base64.getDecoder().decode(partes[3]);
+
+            byte[] calculado = derivar(senhaPlana, salt, iteracoesHash, esperado.length);
+            return MessageDigest.isEqual(calculado, esperado);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean precisaRehash(String senhaHash) {
+        if (!suporta(senhaHash)) {
+            return true;
+        }
+
+        String[] partes = senhaHash.split("\\$");
+        try {
+            return partes.length != 4 || Integer.parseInt(partes[1]) < iteracoes;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] derivar(String senhaPlana, byte[] salt, int iteracoes, int tamanho) {
+        PBEKeySpec spec = new PBEKeySpec(senhaPlana.toCharArray(), salt, iteracoes, tamanho * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Erro ao gerar hash da senha", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
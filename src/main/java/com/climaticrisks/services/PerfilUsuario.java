@@ -0,0 +1,32 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.models.Usuario;
+
+public class PerfilUsuario {
+
+    private final Integer id;
+    private final String nome;
+    private final String email;
+    private final boolean defesaCivil;
+
+    public PerfilUsuario(Integer id, String nome, String email, boolean defesaCivil) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.defesaCivil = defesaCivil;
+    }
+
+    static PerfilUsuario de(Usuario usuario) {
+        return new PerfilUsuario(
+                usuario.getId(),
+                usuario.getNome(),
+                usuario.getEmail(),
+                usuario.getDefesaCivil() != null && usuario.getDefesaCivil()
+        );
+    }
+
+    public Integer getId() { return id; }
+    public String getNome() { return nome; }
+    public String getEmail() { return email; }
+    public boolean isDefesaCivil() { return defesaCivil; }
+}
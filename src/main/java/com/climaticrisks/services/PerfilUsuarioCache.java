@@ -0,0 +1,65 @@
+package com.climaticrisks.services;
+
+import com.climaticrisks.events.UsuarioAlterado;
+import com.climaticrisks.repositories.UsuarioRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ApplicationScoped
+public class PerfilUsuarioCache {
+
+    @Inject
+    UsuarioRepository usuarioRepository;
+
+    @ConfigProperty(name = "climaticrisks.cache.perfil-usuario.ttl", defaultValue = "60s")
+    Duration ttl;
+
+    @ConfigProperty(name = "climaticrisks.cache.perfil-usuario.max-entradas", defaultValue = "10000")
+    int maxEntradas;
+
+    private final Map<Integer, Entrada> perfis = new ConcurrentHashMap<>();
+    private final AtomicLong versao = new AtomicLong();
+
+    public Optional<PerfilUsuario> get(Integer usuarioId) {
+        long agora = System.nanoTime();
+
+        Entrada entrada = perfis.get(usuarioId);
+        if (entrada != null && agora < entrada.expiraEm()) {
+            return entrada.perfil();
+        }
+
+        long versaoCarga = versao.get();
+        Optional<PerfilUsuario> perfil = usuarioRepository.findById(usuarioId).map(PerfilUsuario::de);
+
+        if (perfis.size() >= maxEntradas) {
+            perfis.values().removeIf(e -> agora >= e.expiraEm());
+            if (perfis.size() >= maxEntradas) {
+                perfis.clear();
+            }
+        }
+        Entrada nova = new Entrada(perfil, agora + ttl.toNanos());
+        perfis.put(usuarioId, nova);
+        // Uma invalidação durante a leitura pode ter passado antes do put: a entrada lida antes dela sai.
+        if (versao.get() != versaoCarga) {
+            perfis.remove(usuarioId, nova);
+        }
+
+        return perfil;
+    }
+
+    void onUsuarioAlterado(@Observes UsuarioAlterado evento) {
+        versao.incrementAndGet();
+        perfis.remove(evento.getUsuarioId());
+    }
+
+    private record Entrada(Optional<PerfilUsuario> perfil, long expiraEm) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.climaticrisks.services;
+
+public interface SenhaHasher {
+
+    String hash(String senhaPlana);
+
+    boolean suporta(String senhaHash);
+
+    boolean verificar(String senhaPlana, String senhaHash);
+
+    boolean precisaRehash(String senhaHash);
+}
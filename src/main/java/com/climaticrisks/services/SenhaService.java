@@ -0,0 +1,124 @@
+package com.climaticrisks.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@ApplicationScoped
+public class SenhaService {
+
+    @Inject
+    SenhaHasher senhaHasher;
+
+    @ConfigProperty(name = "climaticrisks.senha.executor.threads")
+    Optional<Integer> threads;
+
+    @ConfigProperty(name = "climaticrisks.senha.executor.fila", defaultValue = "1024")
+    int capacidadeFila;
+
+    private final SenhaHasher legado = new Sha256LegadoSenhaHasher();
+
+    private ThreadPoolExecutor executor;
+    private volatile String hashFicticio;
+
+    @PostConstruct
+    void iniciar() {
+        int tamanho = threads.orElse(Runtime.getRuntime().availableProcessors());
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "senha-hash-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    public <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        try {
+            return CompletableFuture.supplyAsync(tarefa, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public String hash(String senhaPlana) {
+        return aguardar(executar(() -> senhaHasher.hash(senhaPlana)));
+    }
+
+    // Verifica no pool e bloqueia quem chama; o resto do login (banco, JWT) fica na thread da requisição.
+    public ResultadoVerificacao verificarNoPool(String senhaPlana, String senhaHash) {
+        return aguardar(executar(() -> verificar(senhaPlana, senhaHash)));
+    }
+
+    // Mesmo custo de uma senha errada, para o tempo de resposta não revelar se o email existe.
+    public void verificarFicticio(String senhaPlana) {
+        aguardar(executar(() -> senhaHasher.verificar(senhaPlana, hashFicticio())));
+    }
+
+    private String hashFicticio() {
+        if (hashFicticio == null) {
+            hashFicticio = senhaHasher.hash(UUID.randomUUID().toString());
+        }
+        return hashFicticio;
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> tarefa) {
+        try {
+            return tarefa.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    public ResultadoVerificacao verificar(String senhaPlana, String senhaHash) {
+        if (senhaHasher.suporta(senhaHash)) {
+            boolean valida = senhaHasher.verificar(senhaPlana, senhaHash);
+            String novoHash = valida && senhaHasher.precisaRehash(senhaHash) ? senhaHasher.hash(senhaPlana) : null;
+            return new ResultadoVerificacao(valida, novoHash);
+        }
+
+        if (legado.verificar(senhaPlana, senhaHash)) {
+            return new ResultadoVerificacao(true, senhaHasher.hash(senhaPlana));
+        }
+
+        return new ResultadoVerificacao(false, null);
+    }
+
+    public static class ResultadoVerificacao {
+        private final boolean valida;
+        private final String novoHash;
+
+        public ResultadoVerificacao(boolean valida, String novoHash) {
+            this.valida = valida;
+            this.novoHash = novoHash;
+        }
+
+        public boolean isValida() { return valida; }
+        public String getNovoHash() { return novoHash; }
+        public boolean precisaRehash() { return novoHash != null; }
+    }
+}
@@ -0,0 +1,48 @@
+package com.climaticrisks.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+class Sha256LegadoSenhaHasher implements SenhaHasher {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int TAMANHO_HEX = 64;
+
+    @Override
+    public String hash(String senhaPlana) {
+        return HEX.formatHex(digest(senhaPlana));
+    }
+
+    @Override
+    public boolean suporta(String senhaHash) {
+        if (senhaHash == null || senhaHash.length() != TAMANHO_HEX) {
+            return false;
+        }
+        for (int i = 0; i < senhaHash.length(); i++) {
+            if (!HexFormat.isHexDigit(senhaHash.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean verificar(String senhaPlana, String senhaHash) {
+        return suporta(senhaHash) && MessageDigest.isEqual(digest(senhaPlana), HEX.parseHex(senhaHash));
+    }
+
+    @Override
+    public boolean precisaRehash(String senhaHash) {
+        return true;
+    }
+
+    private static byte[] digest(String senhaPlana) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(senhaPlana.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Erro ao gerar hash da senha", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.climaticrisks.services;
+
+public class TokenInvalidoException extends RuntimeException {
+
+    public TokenInvalidoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+-- Índices para a paginação por cursor (created_at, id) das listagens.
+
+CREATE INDEX ix_alerta_defesa_civil_pagina ON gs_alerta_defesa_civil (created_at DESC, id DESC);
+CREATE INDEX ix_endereco_pagina ON gs_endereco (created_at DESC, id DESC);
+CREATE INDEX ix_usuario_pagina ON gs_usuario (created_at DESC, id DESC);
+CREATE INDEX ix_historico_risco_pagina ON gs_historico_risco (created_at DESC, id DESC);
+CREATE INDEX ix_verificacao_evento_pagina ON gs_verificacao_evento (created_at DESC, id DESC);
+CREATE INDEX ix_relatorio_evento_pagina ON gs_relatorio_evento (created_at DESC, id DESC);
@@ -0,0 +1,14 @@
+-- Consolidado mensal de eventos por bairro, mantido pelas escritas de alagamento/deslizamento.
+-- bairro_chave = UPPER(bairro); eventos sem endereço/bairro usam a chave '-'.
+-- tipo_evento: 'A' = alagamento, 'D' = deslizamento.
+
+CREATE TABLE gs_evento_mensal_bairro (
+    periodo      VARCHAR2(7)   NOT NULL,
+    bairro_chave VARCHAR2(100) NOT NULL,
+    bairro       VARCHAR2(100),
+    tipo_evento  CHAR(1)       NOT NULL,
+    total        NUMBER(10)    DEFAULT 0 NOT NULL,
+    updated_at   TIMESTAMP     DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT pk_evento_mensal_bairro PRIMARY KEY (periodo, bairro_chave, tipo_evento),
+    CONSTRAINT ck_evento_mensal_bairro_tipo CHECK (tipo_evento IN ('A', 'D'))
+);
@@ -0,0 +1,3 @@
+-- Hashes PBKDF2 ("pbkdf2_sha256$<iterações>$<salt>$<hash>") têm ~90 caracteres; os SHA-256 legados têm 64.
+
+ALTER TABLE gs_usuario MODIFY senha VARCHAR2(255);
@@ -0,0 +1,26 @@
+-- Chave de deduplicação de endereços: logradouro|bairro|cep sem acentos, em maiúsculas,
+-- com espaços colapsados e CEP só com dígitos (ver EnderecoChave). Endereços excluídos saem do índice.
+
+ALTER TABLE gs_endereco ADD chave_normalizada VARCHAR2(500);
+
+CREATE UNIQUE INDEX ux_endereco_chave ON gs_endereco (CASE WHEN deleted_at IS NULL THEN chave_normalizada END);
+
+-- Preenche a chave do registro mais antigo de cada endereço ativo; duplicatas antigas ficam sem chave.
+-- Endereços de usuário ficam sem chave: são do morador, não compartilhados pelos relatos.
+-- O TRANSLATE cobre os acentos do português, equivalente à normalização feita na aplicação.
+MERGE INTO gs_endereco e
+USING (
+    SELECT MIN(id) AS id, chave
+    FROM (
+        SELECT id,
+               REGEXP_REPLACE(TRIM(TRANSLATE(UPPER(logradouro), 'ÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ', 'AAAAAEEEEIIIIOOOOOUUUUCN')), '\s+', ' ') || '|' ||
+               REGEXP_REPLACE(TRIM(TRANSLATE(UPPER(bairro), 'ÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ', 'AAAAAEEEEIIIIOOOOOUUUUCN')), '\s+', ' ') || '|' ||
+               REGEXP_REPLACE(cep, '[^0-9]', '') AS chave
+        FROM gs_endereco
+        WHERE deleted_at IS NULL
+          AND id NOT IN (SELECT endereco_id FROM gs_usuario WHERE endereco_id IS NOT NULL)
+    )
+    GROUP BY chave
+) s
+ON (e.id = s.id)
+WHEN MATCHED THEN UPDATE SET e.chave_normalizada = s.chave;
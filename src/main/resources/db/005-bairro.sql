@@ -0,0 +1,72 @@
+-- Dicionário canônico de bairros. chave = nome sem acentos, em maiúsculas e com espaços colapsados
+-- (ver EnderecoChave.bairro); nome guarda a primeira grafia recebida.
+
+CREATE TABLE gs_bairro (
+    id         NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    chave      VARCHAR2(100) NOT NULL,
+    nome       VARCHAR2(100) NOT NULL,
+    created_at TIMESTAMP     DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT uk_bairro_chave UNIQUE (chave)
+);
+
+ALTER TABLE gs_endereco ADD bairro_id NUMBER CONSTRAINT fk_endereco_bairro REFERENCES gs_bairro (id);
+CREATE INDEX ix_endereco_bairro ON gs_endereco (bairro_id);
+
+-- Relatórios consolidados ficam com bairro_id nulo; o índice composto também os cobre.
+ALTER TABLE gs_relatorio_evento ADD bairro_id NUMBER CONSTRAINT fk_relatorio_evento_bairro REFERENCES gs_bairro (id);
+CREATE INDEX ix_relatorio_evento_bairro ON gs_relatorio_evento (bairro_id, periodo DESC);
+
+-- Preenche o dicionário com as grafias existentes; o TRANSLATE segue a normalização da aplicação, como em 004.
+INSERT INTO gs_bairro (chave, nome)
+SELECT chave, MIN(nome)
+FROM (
+    SELECT REGEXP_REPLACE(TRIM(TRANSLATE(UPPER(bairro), 'ÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ', 'AAAAAEEEEIIIIOOOOOUUUUCN')), '\s+', ' ') AS chave,
+           TRIM(bairro) AS nome
+    FROM gs_endereco
+    UNION ALL
+    SELECT REGEXP_REPLACE(TRIM(TRANSLATE(UPPER(regiao), 'ÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ', 'AAAAAEEEEIIIIOOOOOUUUUCN')), '\s+', ' '),
+           TRIM(regiao)
+    FROM gs_relatorio_evento
+    WHERE regiao <> 'CONSOLIDADO'
+)
+WHERE chave IS NOT NULL
+GROUP BY chave;
+
+UPDATE gs_endereco e
+SET bairro_id = (
+    SELECT b.id FROM gs_bairro b
+    WHERE b.chave = REGEXP_REPLACE(TRIM(TRANSLATE(UPPER(e.bairro), 'ÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ', 'AAAAAEEEEIIIIOOOOOUUUUCN')), '\s+', ' ')
+);
+
+UPDATE gs_relatorio_evento r
+SET bairro_id = (
+    SELECT b.id FROM gs_bairro b
+    WHERE b.chave = REGEXP_REPLACE(TRIM(TRANSLATE(UPPER(r.regiao), 'ÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ', 'AAAAAEEEEIIIIOOOOOUUUUCN')), '\s+', ' ')
+)
+WHERE regiao <> 'CONSOLIDADO';
+
+-- O consolidado mensal passa a ser chaveado por bairro_id (0 = sem bairro). Ele é derivado dos eventos,
+-- então é recriado e recarregado aqui, com a mesma consulta de EventoMensalBairroRepository.reconstruir.
+DROP TABLE gs_evento_mensal_bairro;
+
+CREATE TABLE gs_evento_mensal_bairro (
+    periodo     VARCHAR2(7) NOT NULL,
+    bairro_id   NUMBER      NOT NULL,
+    tipo_evento CHAR(1)     NOT NULL,
+    total       NUMBER(10)  DEFAULT 0 NOT NULL,
+    updated_at  TIMESTAMP   DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT pk_evento_mensal_bairro PRIMARY KEY (periodo, bairro_id, tipo_evento),
+    CONSTRAINT ck_evento_mensal_bairro_tipo CHECK (tipo_evento IN ('A', 'D'))
+);
+
+INSERT INTO gs_evento_mensal_bairro (periodo, bairro_id, tipo_evento, total, updated_at)
+SELECT TO_CHAR(ev.data_ocorrencia, 'YYYY-MM'), NVL(e.bairro_id, 0), ev.tipo_evento, COUNT(*), CURRENT_TIMESTAMP
+FROM (
+    SELECT endereco_id, data_ocorrencia, 'A' AS tipo_evento FROM gs_alagamento
+    WHERE deleted_at IS NULL AND data_ocorrencia IS NOT NULL
+    UNION ALL
+    SELECT endereco_id, data_ocorrencia, 'D' AS tipo_evento FROM gs_deslizamento
+    WHERE deleted_at IS NULL AND data_ocorrencia IS NOT NULL
+) ev
+LEFT JOIN gs_endereco e ON e.id = ev.endereco_id AND e.deleted_at IS NULL
+GROUP BY TO_CHAR(ev.data_ocorrencia, 'YYYY-MM'), NVL(e.bairro_id, 0), ev.tipo_evento;
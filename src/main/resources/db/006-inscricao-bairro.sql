@@ -0,0 +1,8 @@
+-- Inscrições explícitas de usuários em bairros além do bairro do próprio endereço.
+
+CREATE TABLE gs_inscricao_bairro (
+    usuario_id NUMBER    NOT NULL CONSTRAINT fk_inscricao_bairro_usuario REFERENCES gs_usuario (id),
+    bairro_id  NUMBER    NOT NULL CONSTRAINT fk_inscricao_bairro_bairro REFERENCES gs_bairro (id),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT pk_inscricao_bairro PRIMARY KEY (usuario_id, bairro_id)
+);
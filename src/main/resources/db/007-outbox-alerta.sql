@@ -0,0 +1,20 @@
+-- Outbox das notificações de alerta: gravada na mesma transação do alerta e drenada por OutboxAlertaDispatcher.
+-- A linha guarda o conteúdo da notificação, então o envio não depende do estado posterior do alerta.
+
+CREATE TABLE gs_outbox_alerta (
+    id                NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    alerta_id         NUMBER         NOT NULL CONSTRAINT fk_outbox_alerta_alerta REFERENCES gs_alerta_defesa_civil (id),
+    titulo            VARCHAR2(200)  NOT NULL,
+    mensagem          CLOB,
+    prioridade        VARCHAR2(10)   NOT NULL,
+    bairros           VARCHAR2(4000) NOT NULL,
+    tentativas        NUMBER(5)      DEFAULT 0 NOT NULL,
+    proxima_tentativa TIMESTAMP      DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    ultimo_erro       VARCHAR2(1000),
+    destinatarios     NUMBER(10),
+    processado_em     TIMESTAMP,
+    created_at        TIMESTAMP      DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+-- proxima_tentativa é NOT NULL, então as pendentes (processado_em nulo) também entram no índice.
+CREATE INDEX ix_outbox_alerta_pendente ON gs_outbox_alerta (processado_em, proxima_tentativa);
@@ -0,0 +1,38 @@
+-- Bairros afetados por alerta, normalizados a partir do texto livre de bairros_afetados
+-- (separado por vírgula ou ponto e vírgula, ver BairroRepository.separar). O texto continua gravado para exibição.
+
+CREATE TABLE gs_alerta_bairro (
+    alerta_id NUMBER NOT NULL CONSTRAINT fk_alerta_bairro_alerta REFERENCES gs_alerta_defesa_civil (id),
+    bairro_id NUMBER NOT NULL CONSTRAINT fk_alerta_bairro_bairro REFERENCES gs_bairro (id),
+    CONSTRAINT pk_alerta_bairro PRIMARY KEY (alerta_id, bairro_id)
+);
+
+CREATE INDEX ix_alerta_bairro_bairro ON gs_alerta_bairro (bairro_id, alerta_id);
+
+-- Grafias que só aparecem em alertas entram no dicionário; o TRANSLATE segue a normalização da aplicação, como em 005.
+INSERT INTO gs_bairro (chave, nome)
+SELECT chave, MIN(nome)
+FROM (
+    SELECT REGEXP_REPLACE(TRIM(TRANSLATE(UPPER(p.nome), 'ÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ', 'AAAAAEEEEIIIIOOOOOUUUUCN')), '\s+', ' ') AS chave,
+           p.nome
+    FROM gs_alerta_defesa_civil a
+    CROSS APPLY (
+        SELECT TRIM(REGEXP_SUBSTR(a.bairros_afetados, '[^,;]+', 1, LEVEL)) AS nome
+        FROM dual
+        CONNECT BY LEVEL <= REGEXP_COUNT(a.bairros_afetados, '[^,;]+')
+    ) p
+)
+WHERE chave IS NOT NULL
+  AND chave NOT IN (SELECT chave FROM gs_bairro)
+GROUP BY chave;
+
+INSERT INTO gs_alerta_bairro (alerta_id, bairro_id)
+SELECT DISTINCT a.id, b.id
+FROM gs_alerta_defesa_civil a
+CROSS APPLY (
+    SELECT TRIM(REGEXP_SUBSTR(a.bairros_afetados, '[^,;]+', 1, LEVEL)) AS nome
+    FROM dual
+    CONNECT BY LEVEL <= REGEXP_COUNT(a.bairros_afetados, '[^,;]+')
+) p
+JOIN gs_bairro b
+  ON b.chave = REGEXP_REPLACE(TRIM(TRANSLATE(UPPER(p.nome), 'ÁÀÂÃÄÉÈÊËÍÌÎÏÓÒÔÕÖÚÙÛÜÇÑ', 'AAAAAEEEEIIIIOOOOOUUUUCN')), '\s+', ' ');
@@ -0,0 +1,13 @@
+-- Um histórico ativo por endereço: dois primeiros eventos concorrentes no mesmo endereço não criam duas linhas;
+-- o segundo recebe ORA-00001 e soma sobre a linha do primeiro (ver HistoricoRiscoRepository.ajustarTotalEventos).
+
+-- Duplicatas antigas: fica a linha mais recente de cada endereço.
+UPDATE gs_historico_risco h
+SET deleted_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP
+WHERE h.deleted_at IS NULL
+  AND h.id < (
+      SELECT MAX(d.id) FROM gs_historico_risco d
+      WHERE d.endereco_id = h.endereco_id AND d.deleted_at IS NULL
+  );
+
+CREATE UNIQUE INDEX ux_historico_risco_endereco ON gs_historico_risco (CASE WHEN deleted_at IS NULL THEN endereco_id END);
@@ -0,0 +1,8 @@
+-- ultimo_erro passa a contar caracteres: 1000 caracteres acentuados passavam de 1000 bytes (ORA-12899).
+ALTER TABLE gs_outbox_alerta MODIFY (ultimo_erro VARCHAR2(1000 CHAR));
+
+-- Linha que esgotou climaticrisks.outbox.alertas.max-tentativas: sai da fila e fica para análise.
+ALTER TABLE gs_outbox_alerta ADD (descartado_em TIMESTAMP);
+
+DROP INDEX ix_outbox_alerta_pendente;
+CREATE INDEX ix_outbox_alerta_pendente ON gs_outbox_alerta (processado_em, descartado_em, proxima_tentativa);
@@ -0,0 +1,72 @@
+package com.climaticrisks.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@QuarkusTest
+@EnabledIfSystemProperty(named = "testes.banco", matches = "true")
+class AlertaDefesaCivilReactiveRepositoryTest {
+
+    private static final String TITULO = "Teste leitura reativa";
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    AlertaDefesaCivilRepository repository;
+
+    @Inject
+    AlertaDefesaCivilReactiveRepository reactiveRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void prepararDados() throws Exception {
+        BancoDeTeste.criarTabela(dataSource, """
+            CREATE TABLE gs_alerta_defesa_civil (
+                id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                titulo VARCHAR2(200) NOT NULL,
+                descricao VARCHAR2(1000),
+                nivel_alerta VARCHAR2(20),
+                bairros_afetados VARCHAR2(1000),
+                data_inicio TIMESTAMP,
+                ativo NUMBER(1) DEFAULT 1 NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                deleted_at TIMESTAMP
+            )
+            """);
+        BancoDeTeste.executar(dataSource, "DELETE FROM gs_alerta_defesa_civil WHERE titulo = ?", TITULO);
+
+        // data_inicio distintas: as duas consultas ordenam por ela.
+        String insert = """
+            INSERT INTO gs_alerta_defesa_civil (titulo, descricao, nivel_alerta, bairros_afetados, data_inicio, ativo)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+        LocalDateTime agora = LocalDateTime.now().withNano(0);
+        BancoDeTeste.executar(dataSource, insert, TITULO, "Chuva forte", "médio", "Centro", Timestamp.valueOf(agora.minusHours(2)), 1);
+        BancoDeTeste.executar(dataSource, insert, TITULO, "Risco de deslizamento", "alto", "Centro, Vila Nova", Timestamp.valueOf(agora.minusHours(1)), 1);
+        BancoDeTeste.executar(dataSource, insert, TITULO, "Encerrado", "baixo", "Centro", Timestamp.valueOf(agora), 0);
+    }
+
+    @Test
+    void ativosReativosIguaisAoJdbc() throws Exception {
+        String jdbc = objectMapper.writeValueAsString(repository.findAtivos());
+        String reativo = objectMapper.writeValueAsString(reactiveRepository.findAtivos().await().indefinitely());
+
+        assertEquals(jdbc, reativo);
+        assertFalse(repository.findAtivos().isEmpty());
+    }
+}
@@ -0,0 +1,35 @@
+package com.climaticrisks.repositories;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+final class BancoDeTeste {
+
+    private BancoDeTeste() {
+    }
+
+    static void criarTabela(DataSource dataSource, String ddl) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl);
+        } catch (SQLException e) {
+            // ORA-00955: a tabela já existe no banco apontado.
+            if (e.getErrorCode() != 955) {
+                throw e;
+            }
+        }
+    }
+
+    static void executar(DataSource dataSource, String sql, Object... parametros) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.climaticrisks.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@EnabledIfSystemProperty(named = "testes.banco", matches = "true")
+class HistoricoRiscoReactiveRepositoryTest {
+
+    private static final int ENDERECO_ID = 424242;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    HistoricoRiscoRepository repository;
+
+    @Inject
+    HistoricoRiscoReactiveRepository reactiveRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void prepararDados() throws Exception {
+        BancoDeTeste.criarTabela(dataSource, """
+            CREATE TABLE gs_historico_risco (
+                id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                endereco_id NUMBER NOT NULL,
+                nivel_risco VARCHAR2(20),
+                total_eventos NUMBER DEFAULT 0,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                deleted_at TIMESTAMP
+            )
+            """);
+        BancoDeTeste.executar(dataSource, "DELETE FROM gs_historico_risco WHERE endereco_id IN (?, ?)", ENDERECO_ID, ENDERECO_ID + 1);
+        BancoDeTeste.executar(dataSource,
+                "INSERT INTO gs_historico_risco (endereco_id, nivel_risco, total_eventos) VALUES (?, ?, ?)", ENDERECO_ID, "médio", 7);
+    }
+
+    @Test
+    void historicoReativoIgualAoJdbc() throws Exception {
+        String jdbc = objectMapper.writeValueAsString(repository.findByEnderecoId(ENDERECO_ID).orElseThrow());
+        String reativo = objectMapper.writeValueAsString(reactiveRepository.findByEnderecoId(ENDERECO_ID).await().indefinitely().orElseThrow());
+
+        assertEquals(jdbc, reativo);
+    }
+
+    @Test
+    void enderecoSemHistoricoVazioNosDois() {
+        assertTrue(repository.findByEnderecoId(ENDERECO_ID + 1).isEmpty());
+        assertTrue(reactiveRepository.findByEnderecoId(ENDERECO_ID + 1).await().indefinitely().isEmpty());
+    }
+}
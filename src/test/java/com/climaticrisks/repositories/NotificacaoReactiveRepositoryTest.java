@@ -0,0 +1,68 @@
+package com.climaticrisks.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+@EnabledIfSystemProperty(named = "testes.banco", matches = "true")
+class NotificacaoReactiveRepositoryTest {
+
+    private static final int USUARIO_ID = 424242;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    NotificacaoRepository repository;
+
+    @Inject
+    NotificacaoReactiveRepository reactiveRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void prepararDados() throws Exception {
+        BancoDeTeste.criarTabela(dataSource, """
+            CREATE TABLE gs_notificacao (
+                id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                usuario_id NUMBER NOT NULL,
+                titulo VARCHAR2(200) NOT NULL,
+                mensagem VARCHAR2(1000),
+                prioridade VARCHAR2(20),
+                lida NUMBER(1) DEFAULT 0 NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                deleted_at TIMESTAMP
+            )
+            """);
+        BancoDeTeste.executar(dataSource, "DELETE FROM gs_notificacao WHERE usuario_id = ?", USUARIO_ID);
+
+        // created_at distintos: as duas consultas ordenam por ele.
+        String insert = "INSERT INTO gs_notificacao (usuario_id, titulo, mensagem, prioridade, lida, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+        LocalDateTime agora = LocalDateTime.now().withNano(0);
+        BancoDeTeste.executar(dataSource, insert, USUARIO_ID, "Baixa", "Chuva fraca", "baixo", 0, Timestamp.valueOf(agora.minusMinutes(3)));
+        BancoDeTeste.executar(dataSource, insert, USUARIO_ID, "Média", "Chuva forte", "médio", 0, Timestamp.valueOf(agora.minusMinutes(2)));
+        BancoDeTeste.executar(dataSource, insert, USUARIO_ID, "Sem acento", "Alagamento", "medio", 0, Timestamp.valueOf(agora.minusMinutes(1)));
+        BancoDeTeste.executar(dataSource, insert, USUARIO_ID, "Lida", "Já vista", "alto", 1, Timestamp.valueOf(agora));
+    }
+
+    @Test
+    void naoLidasReativasIguaisAoJdbc() throws Exception {
+        String jdbc = objectMapper.writeValueAsString(repository.findNaoLidasByUsuarioId(USUARIO_ID));
+        String reativo = objectMapper.writeValueAsString(reactiveRepository.findNaoLidasByUsuarioId(USUARIO_ID).await().indefinitely());
+
+        assertEquals(jdbc, reativo);
+        assertEquals(3, repository.findNaoLidasByUsuarioId(USUARIO_ID).size());
+    }
+}
@@ -0,0 +1,58 @@
+package com.climaticrisks.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+@EnabledIfSystemProperty(named = "testes.banco", matches = "true")
+class VerificacaoEventoReactiveRepositoryTest {
+
+    private static final int EVENTO_ID = 424242;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    VerificacaoEventoRepository repository;
+
+    @Inject
+    VerificacaoEventoReactiveRepository reactiveRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void prepararDados() throws Exception {
+        BancoDeTeste.criarTabela(dataSource, VerificacaoEventoRepositoryTest.TABELA);
+        BancoDeTeste.executar(dataSource,
+                "DELETE FROM gs_verificacao_evento WHERE alagamento_id = ? OR deslizamento_id = ?", EVENTO_ID, EVENTO_ID);
+
+        String insert = "INSERT INTO gs_verificacao_evento (usuario_id, alagamento_id, deslizamento_id, confirmacao) VALUES (?, ?, ?, ?)";
+        BancoDeTeste.executar(dataSource, insert, 1, EVENTO_ID, null, 1);
+        BancoDeTeste.executar(dataSource, insert, 2, EVENTO_ID, null, 1);
+        BancoDeTeste.executar(dataSource, insert, 3, EVENTO_ID, null, 0);
+        BancoDeTeste.executar(dataSource, insert, 1, null, EVENTO_ID, 0);
+    }
+
+    @Test
+    void estatisticasReativasIguaisAoJdbc() throws Exception {
+        assertEquals(objectMapper.writeValueAsString(repository.getEstatisticasAlagamento(EVENTO_ID)),
+                objectMapper.writeValueAsString(reactiveRepository.getEstatisticasAlagamento(EVENTO_ID).await().indefinitely()));
+        assertEquals(objectMapper.writeValueAsString(repository.getEstatisticasDeslizamento(EVENTO_ID)),
+                objectMapper.writeValueAsString(reactiveRepository.getEstatisticasDeslizamento(EVENTO_ID).await().indefinitely()));
+    }
+
+    @Test
+    void estatisticasSemVerificacaoIguaisAoJdbc() throws Exception {
+        assertEquals(objectMapper.writeValueAsString(repository.getEstatisticasAlagamento(EVENTO_ID + 1)),
+                objectMapper.writeValueAsString(reactiveRepository.getEstatisticasAlagamento(EVENTO_ID + 1).await().indefinitely()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.climaticrisks.repositories;
+
+import com.climaticrisks.models.VerificacaoEvento;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@QuarkusTest
+@EnabledIfSystemProperty(named = "testes.banco", matches = "true")
+class VerificacaoEventoRepositoryTest {
+
+    private static final int THREADS = 16;
+    private static final int SAVES_POR_THREAD = 25;
+    private static final int USUARIO_ID = 1;
+
+    static final String TABELA = """
+            CREATE TABLE gs_verificacao_evento (
+                id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                usuario_id NUMBER NOT NULL,
+                alagamento_id NUMBER,
+                deslizamento_id NUMBER,
+                confirmacao NUMBER(1) DEFAULT 0 NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                deleted_at TIMESTAMP
+            )
+            """;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    VerificacaoEventoRepository repository;
+
+    @BeforeEach
+    void criarTabela() throws SQLException {
+        BancoDeTeste.criarTabela(dataSource, TABELA);
+    }
+
+    @Test
+    void saveConcorrenteDevolveOIdDaPropriaLinha() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<List<VerificacaoEvento>>> resultados = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    List<VerificacaoEvento> salvas = new ArrayList<>();
+                    for (int i = 0; i < SAVES_POR_THREAD; i++) {
+                        VerificacaoEvento verificacao = new VerificacaoEvento();
+                        // Mesmo usuário em todas: as linhas só se distinguem pelo alagamento e pela confirmação.
+                        verificacao.setUsuarioId(USUARIO_ID);
+                        verificacao.setAlagamentoId(thread * SAVES_POR_THREAD + i + 1);
+                        verificacao.setConfirmacao(i % 2 == 0);
+                        salvas.add(repository.save(verificacao));
+                    }
+                    return salvas;
+                }));
+            }
+            largada.countDown();
+
+            Set<Integer> ids = new HashSet<>();
+            for (Future<List<VerificacaoEvento>> resultado : resultados) {
+                for (VerificacaoEvento salva : resultado.get()) {
+                    assertNotNull(salva.getId());
+                    ids.add(salva.getId());
+
+                    VerificacaoEvento gravada = repository.findById(salva.getId()).orElseThrow();
+                    assertEquals(salva.getUsuarioId(), gravada.getUsuarioId());
+                    assertEquals(salva.getAlagamentoId(), gravada.getAlagamentoId());
+                    assertEquals(salva.getConfirmacao(), gravada.getConfirmacao());
+                }
+            }
+
+            assertEquals(THREADS * SAVES_POR_THREAD, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}